@@ -0,0 +1,103 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The merge loop of the {@code applyUpdates} command, on a batch like a DataSource batch of
+ * pushes, splices and moves would send, against a target that only counts the notifications. The
+ * batch updates a tenth of the items of the list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdapterUpdatesBenchmark {
+
+    /**
+     * Number of items in the list before the batch.
+     */
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private int[] mOps;
+    private final CountingTarget mTarget = new CountingTarget();
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(Inputs.SEED);
+        mOps = new int[size / 10 * 3];
+        int itemCount = size;
+        int position = 0;
+        for (int i = 0; i < mOps.length; i += 3) {
+            final int kind = random.nextInt(10);
+            if (kind < 5) {
+                // Insertions, half of them adjacent to the previous one
+                position = kind < 3 ? Math.min(position + 1, itemCount) : random.nextInt(itemCount + 1);
+                mOps[i] = AdapterUpdates.UPDATE_OP_INSERT;
+                mOps[i + 1] = position;
+                mOps[i + 2] = 1 + random.nextInt(3);
+                itemCount += mOps[i + 2];
+            } else if (kind < 9 && itemCount > 3) {
+                // Removals, half of them adjacent to the previous one
+                position = Math.min(kind < 7 ? position : random.nextInt(itemCount), itemCount - 3);
+                mOps[i] = AdapterUpdates.UPDATE_OP_REMOVE;
+                mOps[i + 1] = position;
+                mOps[i + 2] = 1 + random.nextInt(3);
+                itemCount -= mOps[i + 2];
+            } else {
+                mOps[i] = AdapterUpdates.UPDATE_OP_MOVE;
+                mOps[i + 1] = random.nextInt(itemCount);
+                mOps[i + 2] = random.nextInt(itemCount);
+            }
+        }
+    }
+
+    @Benchmark
+    public int dispatch() {
+        mTarget.notifications = 0;
+        AdapterUpdates.dispatch(mOps, mTarget);
+        return mTarget.notifications;
+    }
+
+    @Benchmark
+    public int getItemCountDelta() {
+        return AdapterUpdates.getItemCountDelta(mOps);
+    }
+
+    /**
+     * Stands for the adapter, without the cost of RecyclerView processing the notifications.
+     */
+    private static final class CountingTarget implements AdapterUpdates.Target {
+        int notifications;
+
+        @Override
+        public void notifyItemRangeInserted(int positionStart, int itemCount) {
+            notifications++;
+        }
+
+        @Override
+        public void notifyItemRangeRemoved(int positionStart, int itemCount) {
+            notifications++;
+        }
+
+        @Override
+        public void notifyItemMoved(int fromPosition, int toPosition) {
+            notifications++;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded inputs of the benchmarks, so that every run measures the same work.
+ */
+final class Inputs {
+
+    static final long SEED = 42;
+
+    private Inputs() {
+    }
+
+    /**
+     * @return distinct item keys, hashed like {@link RecyclerViewItemView#hashKey}.
+     */
+    static long[] keys(int count, Random random) {
+        final long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextLong() & Long.MAX_VALUE;
+        }
+        return keys;
+    }
+
+    /**
+     * @return the keys with the given number of insertions and removals at random positions.
+     */
+    static long[] edit(long[] keys, int edits, Random random) {
+        final List<Long> edited = new ArrayList<>(keys.length + edits);
+        for (long key : keys) {
+            edited.add(key);
+        }
+        for (int i = 0; i < edits; i++) {
+            if (random.nextBoolean() && !edited.isEmpty()) {
+                edited.remove(random.nextInt(edited.size()));
+            } else {
+                edited.add(random.nextInt(edited.size() + 1), random.nextLong() & Long.MAX_VALUE);
+            }
+        }
+        final long[] result = new long[edited.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = edited.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return {@code count} positions in {@code [0, bound)}.
+     */
+    static int[] positions(int count, int bound, Random random) {
+        final int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = random.nextInt(bound);
+        }
+        return positions;
+    }
+
+    /**
+     * @return a height between 40 and 120 pixels, like the rows of the example app.
+     */
+    static int height(Random random) {
+        return 40 + random.nextInt(81);
+    }
+}
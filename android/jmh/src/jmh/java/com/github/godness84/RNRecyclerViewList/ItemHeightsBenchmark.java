@@ -0,0 +1,112 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries and updates of the item heights, as done on every scroll, measure and adapter update.
+ * Half of the items are measured, the others count as the estimated height.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemHeightsBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private final ItemHeights mHeights = new ItemHeights();
+    private int[] mPositions;
+    private int[] mOffsets;
+    private int[] mNewHeights;
+    private int[] mKnownHeights;
+    private int mNext;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(Inputs.SEED);
+        mHeights.setCount(size);
+        mHeights.setSpacing(1, false, true);
+        for (int i = 0; i < size; i += 2) {
+            mHeights.set(i, Inputs.height(random));
+        }
+
+        mPositions = Inputs.positions(INPUTS, size, random);
+        mOffsets = Inputs.positions(INPUTS, mHeights.getTotalHeight(), random);
+        mNewHeights = new int[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            mNewHeights[i] = Inputs.height(random);
+        }
+
+        // Runs of 1 to 10 items of the same declared height, a few of them undeclared
+        final int[] runs = new int[size * 2];
+        int length = 0;
+        for (int declared = 0; declared < size; length += 2) {
+            runs[length] = Math.min(size - declared, 1 + random.nextInt(10));
+            runs[length + 1] = random.nextInt(10) == 0 ? -1 : Inputs.height(random);
+            declared += runs[length];
+        }
+        mKnownHeights = Arrays.copyOf(runs, length);
+    }
+
+    private int next() {
+        return mNext++ & (INPUTS - 1);
+    }
+
+    @Benchmark
+    public int getOffset() {
+        return mHeights.getOffset(mPositions[next()]);
+    }
+
+    @Benchmark
+    public int findPosition() {
+        return mHeights.findPosition(mOffsets[next()]);
+    }
+
+    @Benchmark
+    public int getTotalHeight() {
+        return mHeights.getTotalHeight();
+    }
+
+    @Benchmark
+    public void set() {
+        final int i = next();
+        mHeights.set(mPositions[i], mNewHeights[i]);
+    }
+
+    @Benchmark
+    public void insertAndRemove() {
+        final int position = mPositions[next()];
+        mHeights.insert(position, 1);
+        mHeights.remove(position, 1);
+    }
+
+    @Benchmark
+    public void move() {
+        final int i = next();
+        mHeights.move(mPositions[i], mPositions[(i + 1) & (INPUTS - 1)]);
+    }
+
+    @Benchmark
+    public void setKnownHeights() {
+        mHeights.setKnownHeights(0, mKnownHeights);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diff of a dataset replacement, as done by {@code notifyDataSetChangedWithKeys}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyDiffBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    /**
+     * Insertions and removals between the two datasets; beyond 1000 the diff gives up.
+     */
+    @Param({"10", "500"})
+    public int edits;
+
+    private long[] mOldKeys;
+    private long[] mNewKeys;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(Inputs.SEED);
+        mOldKeys = Inputs.keys(size, random);
+        mNewKeys = Inputs.edit(mOldKeys, edits, random);
+    }
+
+    @Benchmark
+    public int[] compute() {
+        return KeyDiff.compute(mOldKeys, mNewKeys);
+    }
+
+    @Benchmark
+    public int[] computeUnchanged() {
+        return KeyDiff.compute(mOldKeys, mOldKeys);
+    }
+}
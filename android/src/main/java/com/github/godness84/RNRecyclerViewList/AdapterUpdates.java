@@ -0,0 +1,106 @@
+package com.github.godness84.RNRecyclerViewList;
+
+/**
+ * Batches of adapter updates, encoded as consecutive {@code (op, a, b)} triplets, where
+ * {@code op} is one of {@link #UPDATE_OP_INSERT}, {@link #UPDATE_OP_REMOVE} (with {@code a} =
+ * position and {@code b} = count) or {@link #UPDATE_OP_MOVE} (with {@code a} = from and
+ * {@code b} = to). They are sent by JS with the {@code applyUpdates} command and computed by
+ * {@link KeyDiff}.
+ * <p>
+ * It doesn't depend on Android, so that it can be benchmarked on a plain JVM (see the jmh project).
+ */
+/*package*/ final class AdapterUpdates {
+
+    /*package*/ static final int UPDATE_OP_INSERT = 1;
+    /*package*/ static final int UPDATE_OP_REMOVE = 2;
+    /*package*/ static final int UPDATE_OP_MOVE = 3;
+
+    /**
+     * Receives the merged updates; implemented by the adapter with its {@code notify*} methods.
+     */
+    /*package*/ interface Target {
+        void notifyItemRangeInserted(int positionStart, int itemCount);
+
+        void notifyItemRangeRemoved(int positionStart, int itemCount);
+
+        void notifyItemMoved(int fromPosition, int toPosition);
+    }
+
+    private AdapterUpdates() {
+    }
+
+    /**
+     * @return how much the updates change the number of items.
+     */
+    /*package*/ static int getItemCountDelta(int[] ops) {
+        int delta = 0;
+        for (int i = 0; i + 2 < ops.length; i += 3) {
+            if (ops[i] == UPDATE_OP_INSERT) {
+                delta += ops[i + 2];
+            } else if (ops[i] == UPDATE_OP_REMOVE) {
+                delta -= ops[i + 2];
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Notifies the target of the updates. Adjacent insertions and removals are merged so that it
+     * is notified with as few ranges as possible.
+     */
+    /*package*/ static void dispatch(int[] ops, Target target) {
+        int pendingOp = 0;
+        int pendingPosition = 0;
+        int pendingCount = 0;
+
+        for (int i = 0; i + 2 < ops.length; i += 3) {
+            final int op = ops[i];
+            final int a = ops[i + 1];
+            final int b = ops[i + 2];
+
+            switch (op) {
+                case UPDATE_OP_INSERT:
+                    if (pendingOp == UPDATE_OP_INSERT && a >= pendingPosition && a <= pendingPosition + pendingCount) {
+                        pendingCount += b;
+                        continue;
+                    }
+                    break;
+
+                case UPDATE_OP_REMOVE:
+                    if (pendingOp == UPDATE_OP_REMOVE && a <= pendingPosition && a + b >= pendingPosition) {
+                        pendingPosition = a;
+                        pendingCount += b;
+                        continue;
+                    }
+                    break;
+
+                case UPDATE_OP_MOVE:
+                    break;
+
+                default:
+                    throw new IllegalArgumentException(String.format("Unsupported update operation %d.", op));
+            }
+
+            dispatch(target, pendingOp, pendingPosition, pendingCount);
+            pendingOp = op;
+            pendingPosition = a;
+            pendingCount = b;
+        }
+
+        dispatch(target, pendingOp, pendingPosition, pendingCount);
+    }
+
+    private static void dispatch(Target target, int op, int a, int b) {
+        switch (op) {
+            case UPDATE_OP_INSERT:
+                target.notifyItemRangeInserted(a, b);
+                break;
+            case UPDATE_OP_REMOVE:
+                target.notifyItemRangeRemoved(a, b);
+                break;
+            case UPDATE_OP_MOVE:
+                target.notifyItemMoved(a, b);
+                break;
+        }
+    }
+}
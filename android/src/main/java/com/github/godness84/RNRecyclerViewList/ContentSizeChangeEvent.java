@@ -1,5 +1,7 @@
 package com.github.godness84.RNRecyclerViewList;
 
+import android.support.v4.util.Pools;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.PixelUtil;
@@ -8,21 +10,41 @@ import com.facebook.react.uimanager.events.RCTEventEmitter;
 
 /**
  * Event dispatched by {@link RecyclerViewBackedScrollView} when total height of it's children
- * changes
+ * changes. Instances are pooled.
  */
 public class ContentSizeChangeEvent extends Event<ContentSizeChangeEvent> {
 
+  private static final Pools.SynchronizedPool<ContentSizeChangeEvent> EVENTS_POOL =
+      new Pools.SynchronizedPool<>(3);
+
   public static final String EVENT_NAME = "topContentSizeChange";
 
-  private final int mWidth;
-  private final int mHeight;
+  private int mWidth;
+  private int mHeight;
 
-  public ContentSizeChangeEvent(int viewTag, long timestampMs, int width, int height) {
-    super(viewTag);
+  public static ContentSizeChangeEvent obtain(int viewTag, int width, int height) {
+    ContentSizeChangeEvent event = EVENTS_POOL.acquire();
+    if (event == null) {
+      event = new ContentSizeChangeEvent();
+    }
+    event.init(viewTag, width, height);
+    return event;
+  }
+
+  private ContentSizeChangeEvent() {
+  }
+
+  private void init(int viewTag, int width, int height) {
+    super.init(viewTag);
     mWidth = width;
     mHeight = height;
   }
 
+  @Override
+  public void onDispose() {
+    EVENTS_POOL.release(this);
+  }
+
   @Override
   public String getEventName() {
     return EVENT_NAME;
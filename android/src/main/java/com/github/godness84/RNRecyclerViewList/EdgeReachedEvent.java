@@ -0,0 +1,71 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.support.v4.util.Pools;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.PixelUtil;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+
+/**
+ * Event dispatched by {@link RecyclerViewBackedScrollView} when the scroll position gets within
+ * the threshold of the end ({@link #END_REACHED}) or of the start ({@link #START_REACHED}) of the
+ * items. Instances are pooled.
+ */
+public class EdgeReachedEvent extends Event<EdgeReachedEvent> {
+
+    private static final Pools.SynchronizedPool<EdgeReachedEvent> EVENTS_POOL =
+            new Pools.SynchronizedPool<>(2);
+
+    public static final String END_REACHED = "endReached";
+    public static final String START_REACHED = "startReached";
+
+    private String mEventName;
+    private int mDistance;
+
+    /**
+     * @param distance the distance from the edge, in pixels.
+     */
+    public static EdgeReachedEvent obtain(int viewTag, String eventName, int distance) {
+        EdgeReachedEvent event = EVENTS_POOL.acquire();
+        if (event == null) {
+            event = new EdgeReachedEvent();
+        }
+        event.init(viewTag, eventName, distance);
+        return event;
+    }
+
+    private EdgeReachedEvent() {
+    }
+
+    private void init(int viewTag, String eventName, int distance) {
+        super.init(viewTag);
+        mEventName = eventName;
+        mDistance = distance;
+    }
+
+    @Override
+    public void onDispose() {
+        EVENTS_POOL.release(this);
+    }
+
+    @Override
+    public String getEventName() {
+        return mEventName;
+    }
+
+    @Override
+    public boolean canCoalesce() {
+        return false;
+    }
+
+    @Override
+    public void dispatch(RCTEventEmitter rctEventEmitter) {
+        WritableMap data = Arguments.createMap();
+        data.putDouble(
+                END_REACHED.equals(mEventName) ? "distanceFromEnd" : "distanceFromStart",
+                PixelUtil.toDIPFromPixel(mDistance));
+        rctEventEmitter.receiveEvent(getViewTag(), mEventName, data);
+    }
+}
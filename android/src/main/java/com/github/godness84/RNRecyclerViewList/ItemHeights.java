@@ -0,0 +1,313 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import java.util.Arrays;
+
+/**
+ * Measured heights of the items of {@link RecyclerViewBackedScrollView}, indexed by adapter
+ * position. For horizontal lists they are the widths of the items. Two Fenwick trees (binary
+ * indexed trees) hold the sum of the measured heights and the number of measured items, so that
+ * the offset of any item and the total height of the content are computed in O(log n). Items not
+ * measured yet count as the estimated height.
+ * <p>
+ * Insertions, removals and moves shift the heights but leave the trees to be rebuilt, in O(n),
+ * only when an offset is asked for next, so that a burst of updates rebuilds them once.
+ */
+/*package*/ class ItemHeights {
+
+    private static final int UNMEASURED = -1;
+
+    private int mCount;
+    private int[] mHeights = new int[0];
+    private int[] mSumTree = new int[1];
+    private int[] mCountTree = new int[1];
+    private int mMeasuredSum;
+    private int mMeasuredCount;
+    private boolean mTreesDirty;
+    private int mEstimatedHeight = UNMEASURED;
+    private int mFixedHeight = UNMEASURED;
+    private int mSpacing;
+    private boolean mSkipFirstSpacing;
+    private boolean mSkipLastSpacing;
+
+    /**
+     * Declares that every item has the given height, so that all the positions are known even
+     * before the items are measured. A negative value disables it.
+     */
+    public void setFixedHeight(int fixedHeight) {
+        mFixedHeight = fixedHeight;
+    }
+
+    /**
+     * Sets the height used for items not measured yet. If not set, the average of the measured
+     * heights is used.
+     */
+    public void setEstimatedHeight(int estimatedHeight) {
+        mEstimatedHeight = estimatedHeight;
+    }
+
+    /**
+     * Sets the space taken next to each item, e.g. by a separator drawn by an item decoration,
+     * which is not part of the measured heights. The space of an item counts as part of it: the
+     * offset of an item is the sum of the heights and spacings of the items before it.
+     *
+     * @param skipFirst whether the first item has no spacing.
+     * @param skipLast whether the last item has no spacing.
+     */
+    public void setSpacing(int spacing, boolean skipFirst, boolean skipLast) {
+        mSpacing = spacing;
+        mSkipFirstSpacing = skipFirst;
+        mSkipLastSpacing = skipLast;
+    }
+
+    public int getEstimatedHeight() {
+        if (mFixedHeight >= 0) {
+            return mFixedHeight;
+        }
+        if (mEstimatedHeight >= 0) {
+            return mEstimatedHeight;
+        }
+        return mMeasuredCount > 0 ? mMeasuredSum / mMeasuredCount : 0;
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    public void setCount(int count) {
+        if (count == mCount) {
+            return;
+        }
+        if (count > mCount) {
+            insert(mCount, count - mCount);
+        } else {
+            remove(count, mCount - count);
+        }
+    }
+
+    /**
+     * Sets the number of items and forgets all their heights, e.g. when the whole dataset is
+     * replaced.
+     */
+    public void reset(int count) {
+        ensureCapacity(count);
+        Arrays.fill(mHeights, 0, count, UNMEASURED);
+        mCount = count;
+        mMeasuredSum = 0;
+        mMeasuredCount = 0;
+        mTreesDirty = true;
+    }
+
+    public void insert(int position, int count) {
+        if (count <= 0) {
+            return;
+        }
+        position = Math.min(position, mCount);
+        ensureCapacity(mCount + count);
+        System.arraycopy(mHeights, position, mHeights, position + count, mCount - position);
+        Arrays.fill(mHeights, position, position + count, UNMEASURED);
+        mCount += count;
+        mTreesDirty = true;
+    }
+
+    public void remove(int position, int count) {
+        count = Math.min(count, mCount - position);
+        if (count <= 0) {
+            return;
+        }
+        for (int i = position; i < position + count; i++) {
+            if (mHeights[i] != UNMEASURED) {
+                mMeasuredSum -= mHeights[i];
+                mMeasuredCount--;
+            }
+        }
+        System.arraycopy(mHeights, position + count, mHeights, position, mCount - position - count);
+        mCount -= count;
+        mTreesDirty = true;
+    }
+
+    public void move(int from, int to) {
+        if (from == to || from >= mCount || to >= mCount) {
+            return;
+        }
+        final int height = mHeights[from];
+        if (from < to) {
+            System.arraycopy(mHeights, from + 1, mHeights, from, to - from);
+        } else {
+            System.arraycopy(mHeights, to, mHeights, to + 1, from - to);
+        }
+        mHeights[to] = height;
+        mTreesDirty = true;
+    }
+
+    public void set(int position, int height) {
+        if (position < 0 || position >= mCount || mHeights[position] == height) {
+            return;
+        }
+
+        final int oldHeight = mHeights[position];
+        final int sumDelta = height - Math.max(oldHeight, 0);
+        final int countDelta = oldHeight == UNMEASURED ? 1 : 0;
+        mHeights[position] = height;
+        mMeasuredSum += sumDelta;
+        mMeasuredCount += countDelta;
+
+        // Left to the next rebuild if the trees are already out of date
+        if (mTreesDirty) {
+            return;
+        }
+        for (int i = position + 1; i <= mCount; i += i & -i) {
+            mSumTree[i] += sumDelta;
+            mCountTree[i] += countDelta;
+        }
+    }
+
+    /**
+     * Sets the heights declared in advance for the items, encoded as consecutive
+     * {@code (count, height)} runs starting from the given position. Runs with a negative height
+     * are skipped, leaving the heights of their items as they are.
+     */
+    public void setKnownHeights(int start, int[] runs) {
+        int declared = 0;
+        for (int i = 0; i + 1 < runs.length; i += 2) {
+            if (runs[i + 1] >= 0) {
+                declared += runs[i];
+            }
+        }
+
+        // A few items are updated in place, O(log n) each; more are cheaper to set in one go and
+        // rebuild the trees in O(n)
+        final boolean inPlace = declared < mCount / 32;
+        int position = start;
+        for (int i = 0; i + 1 < runs.length && position < mCount; i += 2) {
+            final int end = Math.min(mCount, position + runs[i]);
+            final int height = runs[i + 1];
+            if (height >= 0) {
+                if (inPlace) {
+                    for (int p = position; p < end; p++) {
+                        set(p, height);
+                    }
+                } else {
+                    Arrays.fill(mHeights, position, end, height);
+                }
+            }
+            position = end;
+        }
+        if (!inPlace) {
+            recount();
+            mTreesDirty = true;
+        }
+    }
+
+    /**
+     * @return whether the height of the item at the given position is known, either because it has
+     * been measured or declared in advance.
+     */
+    public boolean isKnown(int position) {
+        return position >= 0 && position < mCount && (mHeights[position] != UNMEASURED || mFixedHeight >= 0);
+    }
+
+    public int getHeight(int position) {
+        final int height = position >= 0 && position < mCount ? mHeights[position] : UNMEASURED;
+        return height != UNMEASURED ? height : getEstimatedHeight();
+    }
+
+    /**
+     * @return the distance between the start of the content and the start of the item at the given
+     * position, that is the sum of the heights of the items before it.
+     */
+    public int getOffset(int position) {
+        ensureTrees();
+        position = Math.min(position, mCount);
+        int sum = 0;
+        int measured = 0;
+        for (int i = position; i > 0; i -= i & -i) {
+            sum += mSumTree[i];
+            measured += mCountTree[i];
+        }
+        return sum + (position - measured) * getEstimatedHeight() + getSpacingBefore(position);
+    }
+
+    public int getTotalHeight() {
+        return mMeasuredSum + (mCount - mMeasuredCount) * getEstimatedHeight() + getSpacingBefore(mCount);
+    }
+
+    /**
+     * @return the space taken by the spacings of the items before the given position.
+     */
+    private int getSpacingBefore(int position) {
+        int spaced = position;
+        if (mSkipFirstSpacing && position > 0) {
+            spaced--;
+        }
+        if (mSkipLastSpacing && position == mCount) {
+            spaced--;
+        }
+        return Math.max(0, spaced) * mSpacing;
+    }
+
+    /**
+     * @return the position of the item that contains the given offset from the start of the
+     * content, clamped to the valid positions.
+     */
+    public int findPosition(int offset) {
+        ensureTrees();
+        final int estimatedHeight = getEstimatedHeight();
+        int position = 0;
+        // The descent counts a spacing for every item, including the first one
+        int remaining = mSkipFirstSpacing ? offset + mSpacing : offset;
+        for (int bit = Integer.highestOneBit(Math.max(mCount, 1)); bit > 0; bit >>= 1) {
+            final int next = position + bit;
+            if (next <= mCount) {
+                final int height = mSumTree[next] + (bit - mCountTree[next]) * estimatedHeight + bit * mSpacing;
+                if (height <= remaining) {
+                    position = next;
+                    remaining -= height;
+                }
+            }
+        }
+        return Math.max(0, Math.min(position, mCount - 1));
+    }
+
+    private void ensureCapacity(int count) {
+        if (count > mHeights.length) {
+            final int capacity = Math.max(count, mHeights.length * 2);
+            mHeights = Arrays.copyOf(mHeights, capacity);
+            mSumTree = new int[capacity + 1];
+            mCountTree = new int[capacity + 1];
+            mTreesDirty = true;
+        }
+    }
+
+    private void recount() {
+        mMeasuredSum = 0;
+        mMeasuredCount = 0;
+        for (int i = 0; i < mCount; i++) {
+            if (mHeights[i] != UNMEASURED) {
+                mMeasuredSum += mHeights[i];
+                mMeasuredCount++;
+            }
+        }
+    }
+
+    private void ensureTrees() {
+        if (!mTreesDirty) {
+            return;
+        }
+        mTreesDirty = false;
+        Arrays.fill(mSumTree, 0, mCount + 1, 0);
+        Arrays.fill(mCountTree, 0, mCount + 1, 0);
+
+        for (int i = 1; i <= mCount; i++) {
+            final int height = mHeights[i - 1];
+            if (height != UNMEASURED) {
+                mSumTree[i] += height;
+                mCountTree[i] += 1;
+            }
+            final int parent = i + (i & -i);
+            if (parent <= mCount) {
+                mSumTree[parent] += mSumTree[i];
+                mCountTree[parent] += mCountTree[i];
+            }
+        }
+    }
+}
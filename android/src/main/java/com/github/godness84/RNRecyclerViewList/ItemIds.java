@@ -0,0 +1,83 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Stable ids of the items of {@link RecyclerViewBackedScrollView}, indexed by adapter position.
+ * They are hashed from the DataSource keys sent by JS, and follow the items when items are
+ * inserted, removed or moved, so that the id of a position doesn't depend on whether its row has
+ * been rendered yet. Positions whose key is not known have {@link RecyclerView#NO_ID}.
+ */
+/*package*/ class ItemIds {
+
+    private int mCount;
+    private long[] mIds = new long[0];
+
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Sets the number of items and forgets all their ids, e.g. when the whole dataset is replaced.
+     */
+    public void reset(int count) {
+        ensureCapacity(count);
+        Arrays.fill(mIds, 0, count, RecyclerView.NO_ID);
+        mCount = count;
+    }
+
+    public void insert(int position, int count) {
+        if (count <= 0) {
+            return;
+        }
+        position = Math.min(position, mCount);
+        ensureCapacity(mCount + count);
+        System.arraycopy(mIds, position, mIds, position + count, mCount - position);
+        Arrays.fill(mIds, position, position + count, RecyclerView.NO_ID);
+        mCount += count;
+    }
+
+    public void remove(int position, int count) {
+        count = Math.min(count, mCount - position);
+        if (count <= 0) {
+            return;
+        }
+        System.arraycopy(mIds, position + count, mIds, position, mCount - position - count);
+        mCount -= count;
+    }
+
+    public void move(int from, int to) {
+        if (from == to || from >= mCount || to >= mCount) {
+            return;
+        }
+        final long id = mIds[from];
+        if (from < to) {
+            System.arraycopy(mIds, from + 1, mIds, from, to - from);
+        } else {
+            System.arraycopy(mIds, to, mIds, to + 1, from - to);
+        }
+        mIds[to] = id;
+    }
+
+    /**
+     * Sets the ids of the items from the given position. Ids beyond the last item are ignored.
+     */
+    public void set(int start, long[] ids) {
+        final int count = Math.min(ids.length, mCount - start);
+        if (start >= 0 && count > 0) {
+            System.arraycopy(ids, 0, mIds, start, count);
+        }
+    }
+
+    public long get(int position) {
+        return position >= 0 && position < mCount ? mIds[position] : RecyclerView.NO_ID;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count > mIds.length) {
+            mIds = Arrays.copyOf(mIds, Math.max(count, mIds.length * 2));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes the shortest list of insertions and removals that turns a list of item keys into
+ * another one, using Myers' difference algorithm (the same used by {@code DiffUtil}).
+ * <p>
+ * The result is encoded as the {@code (op, a, b)} triplets of {@link AdapterUpdates}, ordered from
+ * the end of the list to the start so that every position is valid when it is applied.
+ */
+/*package*/ class KeyDiff {
+
+    /**
+     * Beyond this number of edits the lists are considered unrelated: a full refresh is cheaper than
+     * animating every single change, and the memory needed to backtrack stays bounded.
+     */
+    private static final int MAX_EDIT_DISTANCE = 1000;
+
+    /**
+     * @return the encoded updates, or {@code null} if the lists differ by more than
+     * {@link #MAX_EDIT_DISTANCE} edits.
+     */
+    /*package*/ static @Nullable int[] compute(long[] oldKeys, long[] newKeys) {
+        int start = 0;
+        int oldEnd = oldKeys.length;
+        int newEnd = newKeys.length;
+
+        // Common prefix and suffix do not need to go through the O(ND) algorithm
+        while (start < oldEnd && start < newEnd && oldKeys[start] == newKeys[start]) {
+            start++;
+        }
+        while (oldEnd > start && newEnd > start && oldKeys[oldEnd - 1] == newKeys[newEnd - 1]) {
+            oldEnd--;
+            newEnd--;
+        }
+
+        final int n = oldEnd - start;
+        final int m = newEnd - start;
+        final int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        if (n + m > 0 && max < Math.abs(n - m)) {
+            return null;
+        }
+
+        final int offset = max + 1;
+        final int[] v = new int[2 * max + 3];
+        final List<int[]> trace = new ArrayList<>();
+        int distance = -1;
+
+        for (int d = 0; d <= max && distance < 0; d++) {
+            trace.add(Arrays.copyOfRange(v, offset - d - 1, offset + d + 2));
+
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+                    x = v[offset + k + 1];
+                } else {
+                    x = v[offset + k - 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && oldKeys[start + x] == newKeys[start + y]) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+
+                if (x >= n && y >= m) {
+                    distance = d;
+                    break;
+                }
+            }
+        }
+
+        if (distance < 0) {
+            return null;
+        }
+
+        final int[] ops = new int[distance * 3];
+        int opCount = 0;
+        int x = n;
+        int y = m;
+
+        for (int d = distance; d > 0; d--) {
+            final int[] snapshot = trace.get(d);
+            final int k = x - y;
+            final int prevK;
+            if (k == -d || (k != d && snapshot[k - 1 + d + 1] < snapshot[k + 1 + d + 1])) {
+                prevK = k + 1;
+            } else {
+                prevK = k - 1;
+            }
+            final int prevX = snapshot[prevK + d + 1];
+            final int prevY = prevX - prevK;
+
+            while (x > prevX && y > prevY) {
+                x--;
+                y--;
+            }
+
+            if (x == prevX) {
+                ops[opCount++] = AdapterUpdates.UPDATE_OP_INSERT;
+                ops[opCount++] = start + x;
+                ops[opCount++] = 1;
+                y--;
+            } else {
+                ops[opCount++] = AdapterUpdates.UPDATE_OP_REMOVE;
+                ops[opCount++] = start + x - 1;
+                ops[opCount++] = 1;
+                x--;
+            }
+        }
+
+        return ops;
+    }
+}
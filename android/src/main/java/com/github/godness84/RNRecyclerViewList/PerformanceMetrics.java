@@ -0,0 +1,208 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * Scroll performance metrics collected by {@link RecyclerViewBackedScrollView} when they are
+ * enabled: frames rendered while scrolling, janky and dropped frames, timing of the holder binds
+ * and of the layout passes, binds of rows that JS had not rendered yet (blank rows), events
+ * dispatched to JS, and the most binds, layout passes and events within a single frame.
+ */
+/*package*/ class PerformanceMetrics {
+
+    /**
+     * Upper bounds of the buckets of the timing histograms, in microseconds. The last bucket
+     * collects everything above the last bound.
+     */
+    private static final long[] BUCKET_BOUNDS_US = {250, 500, 1000, 2000, 4000, 8000, 16000};
+
+    /**
+     * Histogram of durations with fixed exponential buckets, so that recording never allocates.
+     */
+    /*package*/ static class Histogram {
+        private final int[] mBuckets = new int[BUCKET_BOUNDS_US.length + 1];
+        private int mCount;
+        private long mTotalNanos;
+        private long mMaxNanos;
+
+        public void record(long nanos) {
+            final long micros = nanos / 1000;
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_US.length && micros > BUCKET_BOUNDS_US[bucket]) {
+                bucket++;
+            }
+            mBuckets[bucket]++;
+            mCount++;
+            mTotalNanos += nanos;
+            mMaxNanos = Math.max(mMaxNanos, nanos);
+        }
+
+        public int getCount() {
+            return mCount;
+        }
+
+        public long getTotalNanos() {
+            return mTotalNanos;
+        }
+
+        public long getMaxNanos() {
+            return mMaxNanos;
+        }
+
+        public void reset() {
+            for (int i = 0; i < mBuckets.length; i++) {
+                mBuckets[i] = 0;
+            }
+            mCount = 0;
+            mTotalNanos = 0;
+            mMaxNanos = 0;
+        }
+
+        public WritableMap toWritableMap() {
+            WritableMap map = Arguments.createMap();
+            map.putInt("count", mCount);
+            map.putDouble("totalMs", mTotalNanos / 1e6);
+            map.putDouble("averageMs", mCount > 0 ? mTotalNanos / 1e6 / mCount : 0);
+            map.putDouble("maxMs", mMaxNanos / 1e6);
+
+            WritableArray bounds = Arguments.createArray();
+            for (long bound : BUCKET_BOUNDS_US) {
+                bounds.pushDouble(bound / 1e3);
+            }
+            map.putArray("bucketBoundsMs", bounds);
+
+            WritableArray buckets = Arguments.createArray();
+            for (int count : mBuckets) {
+                buckets.pushInt(count);
+            }
+            map.putArray("buckets", buckets);
+            return map;
+        }
+    }
+
+    private int mFrames;
+    private int mJankyFrames;
+    private int mDroppedFrames;
+    private int mBinds;
+    private int mBlankBinds;
+    private int mEvents;
+    private int mFrameBinds;
+    private int mFrameLayouts;
+    private int mFrameEvents;
+    private int mMaxBindsPerFrame;
+    private int mMaxLayoutsPerFrame;
+    private int mMaxEventsPerFrame;
+    private final Histogram mBindTimes = new Histogram();
+    private final Histogram mLayoutTimes = new Histogram();
+
+    /**
+     * Records a frame rendered while scrolling, {@code frameDelta} after the previous one. A frame
+     * is janky when it takes more than one and a half frame intervals, and every interval it
+     * spans beyond the first one is a dropped frame.
+     */
+    public void recordFrame(long frameDeltaNanos, long frameIntervalNanos) {
+        mFrames++;
+        if (frameDeltaNanos * 2 > frameIntervalNanos * 3) {
+            mJankyFrames++;
+            mDroppedFrames += (int) ((frameDeltaNanos + frameIntervalNanos / 2) / frameIntervalNanos) - 1;
+        }
+    }
+
+    /**
+     * @param blank whether the row at the bound position had not been rendered by JS.
+     */
+    public void recordBind(long nanos, boolean blank) {
+        mBinds++;
+        mFrameBinds++;
+        if (blank) {
+            mBlankBinds++;
+        }
+        mBindTimes.record(nanos);
+    }
+
+    public void recordLayout(long nanos) {
+        mFrameLayouts++;
+        mLayoutTimes.record(nanos);
+    }
+
+    public void recordEvent() {
+        mEvents++;
+        mFrameEvents++;
+    }
+
+    /**
+     * Ends the frame the work recorded since the previous call belongs to.
+     */
+    public void closeFrame() {
+        mMaxBindsPerFrame = Math.max(mMaxBindsPerFrame, mFrameBinds);
+        mMaxLayoutsPerFrame = Math.max(mMaxLayoutsPerFrame, mFrameLayouts);
+        mMaxEventsPerFrame = Math.max(mMaxEventsPerFrame, mFrameEvents);
+        mFrameBinds = 0;
+        mFrameLayouts = 0;
+        mFrameEvents = 0;
+    }
+
+    public int getBlankBinds() {
+        return mBlankBinds;
+    }
+
+    /**
+     * Most binds done within a single frame, the frame that is still open included.
+     */
+    public int getMaxBindsPerFrame() {
+        return Math.max(mMaxBindsPerFrame, mFrameBinds);
+    }
+
+    /**
+     * Like {@link #getMaxBindsPerFrame}, for the layout passes.
+     */
+    public int getMaxLayoutsPerFrame() {
+        return Math.max(mMaxLayoutsPerFrame, mFrameLayouts);
+    }
+
+    /**
+     * Like {@link #getMaxBindsPerFrame}, for the events dispatched to JS.
+     */
+    public int getMaxEventsPerFrame() {
+        return Math.max(mMaxEventsPerFrame, mFrameEvents);
+    }
+
+    public boolean isEmpty() {
+        return mFrames == 0 && mBinds == 0 && mEvents == 0 && mLayoutTimes.getCount() == 0;
+    }
+
+    public void reset() {
+        mFrames = 0;
+        mJankyFrames = 0;
+        mDroppedFrames = 0;
+        mBinds = 0;
+        mBlankBinds = 0;
+        mEvents = 0;
+        mFrameBinds = 0;
+        mFrameLayouts = 0;
+        mFrameEvents = 0;
+        mMaxBindsPerFrame = 0;
+        mMaxLayoutsPerFrame = 0;
+        mMaxEventsPerFrame = 0;
+        mBindTimes.reset();
+        mLayoutTimes.reset();
+    }
+
+    public WritableMap toWritableMap() {
+        WritableMap map = Arguments.createMap();
+        map.putInt("frames", mFrames);
+        map.putInt("jankyFrames", mJankyFrames);
+        map.putInt("droppedFrames", mDroppedFrames);
+        map.putInt("binds", mBinds);
+        map.putInt("blankBinds", mBlankBinds);
+        map.putInt("events", mEvents);
+        map.putInt("maxBindsPerFrame", getMaxBindsPerFrame());
+        map.putInt("maxLayoutsPerFrame", getMaxLayoutsPerFrame());
+        map.putInt("maxEventsPerFrame", getMaxEventsPerFrame());
+        map.putMap("bindTime", mBindTimes.toWritableMap());
+        map.putMap("layoutTime", mLayoutTimes.toWritableMap());
+        return map;
+    }
+}
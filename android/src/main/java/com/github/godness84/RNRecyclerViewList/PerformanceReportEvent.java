@@ -0,0 +1,36 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+
+/**
+ * Event dispatched periodically by {@link RecyclerViewBackedScrollView} with the
+ * {@link PerformanceMetrics} collected since the previous report.
+ */
+public class PerformanceReportEvent extends Event<PerformanceReportEvent> {
+
+  public static final String EVENT_NAME = "performanceReport";
+
+  private final WritableMap mMetrics;
+
+  public PerformanceReportEvent(int viewTag, WritableMap metrics) {
+    super(viewTag);
+    mMetrics = metrics;
+  }
+
+  @Override
+  public String getEventName() {
+    return EVENT_NAME;
+  }
+
+  @Override
+  public boolean canCoalesce() {
+    return false;
+  }
+
+  @Override
+  public void dispatch(RCTEventEmitter rctEventEmitter) {
+    rctEventEmitter.receiveEvent(getViewTag(), EVENT_NAME, mMetrics);
+  }
+}
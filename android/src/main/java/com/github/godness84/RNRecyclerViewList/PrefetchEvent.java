@@ -0,0 +1,101 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.support.v4.util.Pools;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+
+/**
+ * Event dispatched by {@link RecyclerViewBackedScrollView} when the UI thread has spare time in a
+ * frame, asking JS to render more rows beyond the ones already rendered around the visible items.
+ * Instances are pooled, and pending events of the same view are coalesced.
+ */
+public class PrefetchEvent extends Event<PrefetchEvent> {
+
+    private static final Pools.SynchronizedPool<PrefetchEvent> EVENTS_POOL =
+            new Pools.SynchronizedPool<>(3);
+
+    public static final String EVENT_NAME = "prefetch";
+
+    private int mFirstIndex;
+    private int mLastIndex;
+    private int mRenderFirstIndex;
+    private int mRenderLastIndex;
+    private int mDirection;
+    private boolean mIdle;
+    private float mFrameTimeLeft;
+    private float mMountTimePerRow;
+
+    public static PrefetchEvent obtain(
+            int viewTag,
+            int firstIndex,
+            int lastIndex,
+            int renderFirstIndex,
+            int renderLastIndex,
+            int direction,
+            boolean idle,
+            float frameTimeLeft,
+            float mountTimePerRow) {
+        PrefetchEvent event = EVENTS_POOL.acquire();
+        if (event == null) {
+            event = new PrefetchEvent();
+        }
+        event.init(viewTag, firstIndex, lastIndex, renderFirstIndex, renderLastIndex, direction, idle, frameTimeLeft, mountTimePerRow);
+        return event;
+    }
+
+    private PrefetchEvent() {
+    }
+
+    private void init(
+            int viewTag,
+            int firstIndex,
+            int lastIndex,
+            int renderFirstIndex,
+            int renderLastIndex,
+            int direction,
+            boolean idle,
+            float frameTimeLeft,
+            float mountTimePerRow) {
+        super.init(viewTag);
+        mFirstIndex = firstIndex;
+        mLastIndex = lastIndex;
+        mRenderFirstIndex = renderFirstIndex;
+        mRenderLastIndex = renderLastIndex;
+        mDirection = direction;
+        mIdle = idle;
+        mFrameTimeLeft = frameTimeLeft;
+        mMountTimePerRow = mountTimePerRow;
+    }
+
+    @Override
+    public void onDispose() {
+        EVENTS_POOL.release(this);
+    }
+
+    @Override
+    public String getEventName() {
+        return EVENT_NAME;
+    }
+
+    @Override
+    public boolean canCoalesce() {
+        return true;
+    }
+
+    @Override
+    public void dispatch(RCTEventEmitter rctEventEmitter) {
+        WritableMap data = Arguments.createMap();
+        data.putInt("firstIndex", mFirstIndex);
+        data.putInt("lastIndex", mLastIndex);
+        data.putInt("renderFirstIndex", mRenderFirstIndex);
+        data.putInt("renderLastIndex", mRenderLastIndex);
+        data.putInt("direction", mDirection);
+        data.putBoolean("idle", mIdle);
+        data.putDouble("frameTimeLeft", mFrameTimeLeft);
+        data.putDouble("mountTimePerRow", mMountTimePerRow);
+        rctEventEmitter.receiveEvent(getViewTag(), EVENT_NAME, data);
+    }
+}
@@ -1,15 +1,57 @@
 
 package com.github.godness84.RNRecyclerViewList;
 
+import android.support.v7.widget.RecyclerView.RecycledViewPool;
+import android.util.SparseIntArray;
+import android.view.View;
+
+import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.Callback;
+import com.facebook.react.uimanager.IllegalViewOperationException;
+import com.facebook.react.uimanager.NativeViewHierarchyManager;
+import com.facebook.react.uimanager.UIBlock;
+import com.facebook.react.uimanager.UIManagerModule;
+
+import java.util.HashMap;
+import java.util.Map;
 
 public class RNRecyclerviewListModule extends ReactContextBaseJavaModule {
 
   private final ReactApplicationContext reactContext;
 
+  /**
+   * Recycled view pools shared by the lists with the same {@code recycledViewPoolId}, with the
+   * number of lists using each of them. Only accessed from the UI thread.
+   */
+  private final Map<String, SharedPool> mSharedPools = new HashMap<>();
+
+  private static class SharedPool {
+    final RecycledViewPool pool = new RecycledViewPool();
+    // The sizes asked by each list using the pool, and their merge applied to the pool
+    final Map<Object, SparseIntArray> sizesByList = new HashMap<>();
+    SparseIntArray appliedSizes = new SparseIntArray();
+    int refCount;
+
+    /**
+     * Applies to the pool the largest size asked by any of its lists for each type, so that a
+     * list doesn't shrink the pool of the others.
+     */
+    void applySizes() {
+      final SparseIntArray sizes = new SparseIntArray();
+      for (SparseIntArray listSizes : sizesByList.values()) {
+        for (int i = 0; i < listSizes.size(); i++) {
+          final int viewType = listSizes.keyAt(i);
+          sizes.put(viewType, Math.max(sizes.get(viewType), listSizes.valueAt(i)));
+        }
+      }
+      RecyclerViewBackedScrollView.updateRecycledViewPoolSizes(pool, appliedSizes, sizes);
+      appliedSizes = sizes;
+    }
+  }
+
   public RNRecyclerviewListModule(ReactApplicationContext reactContext) {
     super(reactContext);
     this.reactContext = reactContext;
@@ -19,4 +61,138 @@ public class RNRecyclerviewListModule extends ReactContextBaseJavaModule {
   public String getName() {
     return "RNRecyclerviewList";
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns the pool shared under the given id, creating it for the first list that asks for it.
+   * Every call must be balanced by {@link #releaseRecycledViewPool(String, Object)}.
+   */
+  /*package*/ RecycledViewPool acquireRecycledViewPool(String poolId) {
+    SharedPool sharedPool = mSharedPools.get(poolId);
+    if (sharedPool == null) {
+      sharedPool = new SharedPool();
+      mSharedPools.put(poolId, sharedPool);
+    }
+    sharedPool.refCount++;
+    return sharedPool.pool;
+  }
+
+  /**
+   * Sets the maximum number of recycled holders the given list asks for each view type of the
+   * shared pool. The pool keeps, for each type, the largest size asked by its lists.
+   */
+  /*package*/ void setRecycledViewPoolSizes(String poolId, Object list, SparseIntArray sizes) {
+    SharedPool sharedPool = mSharedPools.get(poolId);
+    if (sharedPool != null) {
+      sharedPool.sizesByList.put(list, sizes);
+      sharedPool.applySizes();
+    }
+  }
+
+  /**
+   * Releases a pool obtained with {@link #acquireRecycledViewPool(String)}, along with the sizes
+   * the list asked for. When the last list using it releases it, the recycled holders are
+   * dropped.
+   */
+  /*package*/ void releaseRecycledViewPool(String poolId, Object list) {
+    SharedPool sharedPool = mSharedPools.get(poolId);
+    if (sharedPool == null) {
+      return;
+    }
+    if (--sharedPool.refCount <= 0) {
+      mSharedPools.remove(poolId);
+      sharedPool.pool.clear();
+    } else if (sharedPool.sizesByList.remove(list) != null) {
+      sharedPool.applySizes();
+    }
+  }
+
+  /**
+   * Resolves with the {@link PerformanceMetrics} collected by the list with the given tag since
+   * they were enabled or last reset.
+   */
+  @ReactMethod
+  public void getPerformanceMetrics(final int viewTag, final Promise promise) {
+    reactContext.getNativeModule(UIManagerModule.class).addUIBlock(new UIBlock() {
+      @Override
+      public void execute(NativeViewHierarchyManager nativeViewHierarchyManager) {
+        try {
+          PerformanceMetrics metrics = resolveList(nativeViewHierarchyManager, viewTag).getPerformanceMetrics();
+          if (metrics == null) {
+            promise.reject("E_METRICS_DISABLED", "Performance metrics are not enabled on this list.");
+            return;
+          }
+          promise.resolve(metrics.toWritableMap());
+        } catch (IllegalViewOperationException e) {
+          promise.reject("E_INVALID_VIEW", e);
+        }
+      }
+    });
+  }
+
+  @ReactMethod
+  public void resetPerformanceMetrics(final int viewTag) {
+    reactContext.getNativeModule(UIManagerModule.class).addUIBlock(new UIBlock() {
+      @Override
+      public void execute(NativeViewHierarchyManager nativeViewHierarchyManager) {
+        try {
+          PerformanceMetrics metrics = resolveList(nativeViewHierarchyManager, viewTag).getPerformanceMetrics();
+          if (metrics != null) {
+            metrics.reset();
+          }
+        } catch (IllegalViewOperationException e) {
+          // The list has been unmounted in the meantime
+        }
+      }
+    });
+  }
+
+  /**
+   * Marks the start of the rows prefetched by the list with the given tag. The UI operations
+   * sent by JS between this call and {@link #endPrefetchMount} run on the UI thread between the two
+   * marks, which measure how long the prefetched rows take to mount.
+   */
+  @ReactMethod
+  public void startPrefetchMount(final int viewTag) {
+    reactContext.getNativeModule(UIManagerModule.class).addUIBlock(new UIBlock() {
+      @Override
+      public void execute(NativeViewHierarchyManager nativeViewHierarchyManager) {
+        try {
+          resolveList(nativeViewHierarchyManager, viewTag).onPrefetchMountStart();
+        } catch (IllegalViewOperationException e) {
+          // The list has been unmounted in the meantime
+        }
+      }
+    });
+  }
+
+  @ReactMethod
+  public void endPrefetchMount(final int viewTag, final int rowCount) {
+    reactContext.getNativeModule(UIManagerModule.class).addUIBlock(new UIBlock() {
+      @Override
+      public void execute(NativeViewHierarchyManager nativeViewHierarchyManager) {
+        try {
+          resolveList(nativeViewHierarchyManager, viewTag).onPrefetchMountEnd(rowCount);
+        } catch (IllegalViewOperationException e) {
+          // The list has been unmounted in the meantime
+        }
+      }
+    });
+  }
+
+  private static RecyclerViewBackedScrollView resolveList(NativeViewHierarchyManager nativeViewHierarchyManager, int viewTag) {
+    View view = nativeViewHierarchyManager.resolveView(viewTag);
+    if (!(view instanceof RecyclerViewBackedScrollView)) {
+      throw new IllegalViewOperationException("View with tag " + viewTag + " is not a RecyclerViewBackedScrollView.");
+    }
+    return (RecyclerViewBackedScrollView) view;
+  }
+
+  @Override
+  public void onCatalystInstanceDestroy() {
+    super.onCatalystInstanceDestroy();
+    for (SharedPool sharedPool : mSharedPools.values()) {
+      sharedPool.pool.clear();
+    }
+    mSharedPools.clear();
+  }
+}
@@ -2,7 +2,6 @@
 package com.github.godness84.RNRecyclerViewList;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 import com.facebook.react.ReactPackage;
@@ -14,7 +13,9 @@ import com.facebook.react.bridge.JavaScriptModule;
 public class RNRecyclerviewListPackage implements ReactPackage {
     @Override
     public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-        return Collections.emptyList();
+        return Arrays.<NativeModule>asList(
+                new RNRecyclerviewListModule(reactContext)
+        );
     }
 
     @Override
@@ -4,27 +4,40 @@ import android.content.Context;
 import android.graphics.PointF;
 import android.support.annotation.Nullable;
 import android.support.v7.widget.DefaultItemAnimator;
+import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.LinearSmoothScroller;
 import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
 import android.util.DisplayMetrics;
 import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.Choreographer;
 import android.view.ContextThemeWrapper;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.WindowManager;
 
 import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.common.SystemClock;
 import com.facebook.react.common.annotations.VisibleForTesting;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.UIManagerModule;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.uimanager.events.NativeGestureUtil;
 import com.facebook.react.views.scroll.OnScrollDispatchHelper;
 import com.facebook.react.views.scroll.ScrollEvent;
 import com.facebook.react.views.scroll.ScrollEventType;
 import com.facebook.react.views.scroll.VelocityHelper;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -32,8 +45,8 @@ import java.util.List;
  * Wraps {@link RecyclerView} providing interface similar to `ScrollView.js` where each children
  * will be rendered as a separate {@link RecyclerView} row.
  * <p>
- * Currently supports only vertically positioned item. Views will not be automatically recycled but
- * they will be detached from native view hierarchy when scrolled offscreen.
+ * Items are positioned vertically, or horizontally with {@link #setHorizontal}. Views will not be
+ * automatically recycled but they will be detached from native view hierarchy when scrolled offscreen.
  * <p>
  * It works by storing all child views in an array within adapter and binding appropriate views to
  * rows when requested.
@@ -43,6 +56,26 @@ public class RecyclerViewBackedScrollView extends RecyclerView {
 
     private final static String TAG = "RecyclerViewBackedScrol";
 
+    public final static String LAYOUT_MODE_LINEAR = "linear";
+    public final static String LAYOUT_MODE_GRID = "grid";
+    public final static String LAYOUT_MODE_STAGGERED = "staggered";
+
+    /**
+     * Scroll velocity, in dp per millisecond, at which the render window is fully skewed towards
+     * the scroll direction.
+     */
+    private final static float FAST_SCROLL_VELOCITY = 5f;
+
+    /**
+     * Longest interval, in milliseconds, between two scrolled frames of the same scroll.
+     */
+    private final static long MAX_SCROLL_FRAME_INTERVAL = 100;
+
+    /**
+     * Maximum number of recycled holders {@link RecycledViewPool} keeps for a type by default.
+     */
+    private final static int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
     private final OnScrollDispatchHelper mOnScrollDispatchHelper = new OnScrollDispatchHelper();
     private final VelocityHelper mVelocityHelper = new VelocityHelper();
 
@@ -91,13 +124,14 @@ public class RecyclerViewBackedScrollView extends RecyclerView {
         private OnLayoutChangeListener mChildLayoutChangeListener = new OnLayoutChangeListener() {
             @Override
             public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                int oldWidth = (oldRight - oldLeft);
                 int oldHeight = (oldBottom - oldTop);
+                int newWidth = (right - left);
                 int newHeight = (bottom - top);
 
-                if (oldHeight != newHeight) {
+                if (oldHeight != newHeight || oldWidth != newWidth) {
                     if (getParent() != null) {
-                        requestLayout();
-                        getParent().requestLayout();
+                        ((RecyclerViewBackedScrollView) getParent()).onRowLayoutChanged(RecyclableWrapperViewGroup.this);
                     }
                 }
             }
@@ -133,7 +167,25 @@ public class RecyclerViewBackedScrollView extends RecyclerView {
                 mLastMeasuredWidth = child.getMeasuredWidth();
                 mLastMeasuredHeight = child.getMeasuredHeight();
                 setMeasuredDimension(mLastMeasuredWidth, mLastMeasuredHeight);
+
+                if (getParent() instanceof RecyclerViewBackedScrollView) {
+                    RecyclerViewBackedScrollView parent = (RecyclerViewBackedScrollView) getParent();
+                    parent.onRowMeasured(this, parent.isHorizontal() ? mLastMeasuredWidth : mLastMeasuredHeight);
+                }
             } else {
+                // If the size of the item has been declared, the row gets its final size even
+                // before the JS view is rendered.
+                if (getParent() instanceof RecyclerViewBackedScrollView) {
+                    RecyclerViewBackedScrollView parent = (RecyclerViewBackedScrollView) getParent();
+                    final int knownSize = parent.getKnownItemHeight(this);
+                    if (knownSize > 0 && parent.isHorizontal()) {
+                        mLastMeasuredWidth = knownSize;
+                        mLastMeasuredHeight = MeasureSpec.getSize(heightMeasureSpec);
+                    } else if (knownSize > 0) {
+                        mLastMeasuredWidth = MeasureSpec.getSize(widthMeasureSpec);
+                        mLastMeasuredHeight = knownSize;
+                    }
+                }
                 setMeasuredDimension(mLastMeasuredWidth, mLastMeasuredHeight);
             }
         }
@@ -142,6 +194,10 @@ public class RecyclerViewBackedScrollView extends RecyclerView {
             return mAdapter;
         }
 
+        /*package*/ void setAdapter(ReactListAdapter adapter) {
+            mAdapter = adapter;
+        }
+
         @Override
         public boolean onTouchEvent(MotionEvent event) {
             // Similarly to ReactViewGroup, we return true.
@@ -152,29 +208,115 @@ public class RecyclerViewBackedScrollView extends RecyclerView {
         }
     }
 
-    /*package*/ static class ReactListAdapter extends Adapter<ConcreteViewHolder> {
+    /*package*/ static class ReactListAdapter extends Adapter<ConcreteViewHolder>
+            implements AdapterUpdates.Target {
 
         private final List<RecyclerViewItemView> mViews = new ArrayList<>();
+        private final SparseArray<RecyclerViewItemView> mViewsByItemIndex = new SparseArray<>();
         private final RecyclerViewBackedScrollView mScrollView;
+        private final ItemIds mItemIds = new ItemIds();
         private int mItemCount = 0;
+        // Views from this index on may have a stale view index
+        private int mStaleViewIndicesFrom = 0;
+
+        /**
+         * Keeps {@link #mItemIds} aligned with the positions of the adapter.
+         */
+        private final AdapterDataObserver mItemIdsObserver = new AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                mItemIds.reset(mItemCount);
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                mItemIds.insert(positionStart, itemCount);
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                mItemIds.remove(positionStart, itemCount);
+            }
+
+            @Override
+            public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                mItemIds.move(fromPosition, toPosition);
+            }
+        };
 
         public ReactListAdapter(RecyclerViewBackedScrollView scrollView) {
             mScrollView = scrollView;
-            //setHasStableIds(true);
+            setHasStableIds(true);
+            registerAdapterDataObserver(mItemIdsObserver);
         }
 
         public void addView(RecyclerViewItemView child, int index) {
             mViews.add(index, child);
+            mStaleViewIndicesFrom = Math.min(mStaleViewIndicesFrom, index);
+            child.setAdapter(this);
 
             final int itemIndex = child.getItemIndex();
-
-            notifyItemChanged(itemIndex);
+            if (itemIndex >= 0) {
+                mViewsByItemIndex.put(itemIndex, child);
+                notifyItemChanged(itemIndex);
+            }
+            mScrollView.schedulePrefetch();
         }
 
         public void removeViewAt(int index) {
             RecyclerViewItemView child = mViews.get(index);
             if (child != null) {
                 mViews.remove(index);
+                mStaleViewIndicesFrom = Math.min(mStaleViewIndicesFrom, index);
+                child.setAdapter(null);
+                unindexView(child, child.getItemIndex());
+            }
+        }
+
+        /**
+         * Called by {@link RecyclerViewItemView} when its item index changes, so that the
+         * position → view index stays in sync with the views held by the adapter.
+         */
+        /*package*/ void onItemIndexChanged(RecyclerViewItemView child, int oldItemIndex, int newItemIndex) {
+            final TraceRecorder traceRecorder = mScrollView.getTraceRecorder();
+            if (traceRecorder != null) {
+                traceRecorder.recordItemIndex(getViewIndex(child), newItemIndex);
+            }
+            unindexView(child, oldItemIndex);
+            if (newItemIndex >= 0) {
+                mViewsByItemIndex.put(newItemIndex, child);
+            }
+        }
+
+        /**
+         * Called by {@link RecyclerViewItemView} when the key of its item changes, so that it can
+         * be recorded in the trace of the list, if any.
+         */
+        /*package*/ void onItemIdChanged(RecyclerViewItemView child, long itemId) {
+            final TraceRecorder traceRecorder = mScrollView.getTraceRecorder();
+            if (traceRecorder != null) {
+                traceRecorder.recordItemId(getViewIndex(child), itemId);
+            }
+        }
+
+        /**
+         * @return the index of the view among the views held by the adapter. The indices shifted
+         * by views added or removed are only updated here, once for all the views after the first
+         * one that changed, so that adding and removing views costs nothing more when nobody asks.
+         */
+        /*package*/ int getViewIndex(RecyclerViewItemView child) {
+            for (int i = mStaleViewIndicesFrom; i < mViews.size(); i++) {
+                mViews.get(i).setViewIndex(i);
+            }
+            mStaleViewIndicesFrom = mViews.size();
+            return child.getViewIndex();
+        }
+
+        private void unindexView(RecyclerViewItemView child, int itemIndex) {
+            // During a reorder two views may briefly claim the same index: only drop the entry
+            // if it still belongs to this view.
+            if (mViewsByItemIndex.get(itemIndex) == child) {
+                mViewsByItemIndex.remove(itemIndex);
             }
         }
 
@@ -182,6 +324,16 @@ public class RecyclerViewBackedScrollView extends RecyclerView {
             return mViews.size();
         }
 
+        /**
+         * Rows of different types get different holders, so that RecyclerView reuses a wrapper
+         * only for rows of the type it was last used for and pools them separately.
+         */
+        @Override
+        public int getItemViewType(int position) {
+            RecyclerViewItemView view = getViewByItemIndex(position);
+            return view != null ? view.getViewType() : RecyclerViewItemView.DEFAULT_VIEW_TYPE;
+        }
+
         @Override
         public ConcreteViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
             return new ConcreteViewHolder(new RecyclableWrapperViewGroup(parent.getContext(), this));
@@ -189,14 +341,44 @@ public class RecyclerViewBackedScrollView extends RecyclerView {
 
         @Override
         public void onBindViewHolder(ConcreteViewHolder holder, int position) {
+            final long start = mScrollView.isCollectingMetrics() ? System.nanoTime() : 0;
             RecyclableWrapperViewGroup vg = (RecyclableWrapperViewGroup) holder.itemView;
+            // With a shared pool the holder may have been created by another list
+            vg.setAdapter(this);
             View row = getViewByItemIndex(position);
+            // A row reassigned to another position must not stay in the wrapper of its old one
+            if (vg.getChildCount() > 0 && vg.getChildAt(0) != row) {
+                vg.removeAllViews();
+            }
             if (row != null && row.getParent() != vg) {
                 if (row.getParent() != null) {
                     ((ViewGroup) row.getParent()).removeView(row);
                 }
                 vg.addView(row, 0);
             }
+            if (mScrollView.getLayoutManager() instanceof StaggeredGridLayoutManager) {
+                setFullSpan(vg, row != null && row.isFullSpan());
+            }
+            if (start != 0) {
+                mScrollView.recordBind(System.nanoTime() - start, row == null);
+            }
+        }
+
+        /**
+         * The full span of a staggered grid is a layout param of the holder, which RecyclerView
+         * keeps as long as it is of the right class.
+         */
+        private void setFullSpan(View itemView, boolean fullSpan) {
+            final ViewGroup.LayoutParams lp = itemView.getLayoutParams();
+            if (lp instanceof StaggeredGridLayoutManager.LayoutParams) {
+                ((StaggeredGridLayoutManager.LayoutParams) lp).setFullSpan(fullSpan);
+            } else if (fullSpan) {
+                final StaggeredGridLayoutManager.LayoutParams staggeredLp = new StaggeredGridLayoutManager.LayoutParams(
+                        ViewGroup.LayoutParams.WRAP_CONTENT,
+                        ViewGroup.LayoutParams.WRAP_CONTENT);
+                staggeredLp.setFullSpan(true);
+                itemView.setLayoutParams(staggeredLp);
+            }
         }
 
         @Override
@@ -214,247 +396,1513 @@ public class RecyclerViewBackedScrollView extends RecyclerView {
             this.mItemCount = itemCount;
         }
 
+        /**
+         * Applies a batch of updates encoded as described in {@link AdapterUpdates}. The item count
+         * is updated first, then the adapter is notified with the merged ranges; RecyclerView
+         * processes all of them in the next layout pass.
+         */
+        public void applyUpdates(int[] ops) {
+            mItemCount += AdapterUpdates.getItemCountDelta(ops);
+            AdapterUpdates.dispatch(ops, this);
+        }
+
+        /**
+         * Sets the ids of the items from the given position, hashed from their DataSource keys.
+         */
+        public void setItemIds(int start, long[] itemIds) {
+            mItemIds.set(start, itemIds);
+        }
+
+        /**
+         * Items have an id derived from their DataSource key, so that the ViewHolders of items
+         * whose keys survive a {@link #notifyDataSetChanged()} are kept and simply rebound. The ids
+         * come from the keys JS sends for every item, not from the rendered rows, so that the id of
+         * a position stays the same whether its row is rendered or not. Items whose key has not
+         * been received get a negative id unique to their position, below {@link #NO_ID}.
+         */
+        @Override
+        public long getItemId(int position) {
+            final long itemId = mItemIds.get(position);
+            return itemId != NO_ID ? itemId : NO_ID - 1 - position;
+        }
+
         public View getView(int index) {
             return mViews.get(index);
         }
 
         public RecyclerViewItemView getViewByItemIndex(int position) {
-            for (int i = 0; i < mViews.size(); i++) {
-                if (mViews.get(i).getItemIndex() == position) {
-                    return mViews.get(i);
-                }
-            }
-
-            return null;
+            return mViewsByItemIndex.get(position);
         }
     }
 
     private boolean mDragging;
+    private String mLayoutMode = LAYOUT_MODE_LINEAR;
+    private int mSpanCount = 1;
+    private boolean mInverted;
+    private boolean mHorizontal;
     private int mFirstVisibleIndex, mLastVisibleIndex;
+    private int mWindowSize = 30;
+    private int mScrollEventThrottle;
+    private long mLastScrollEventTime;
+    private boolean mScrollEventPending;
+    // Speed of the scroll along its axis, in pixels per millisecond
+    private float mScrollVelocity;
+    private long mLastScrolledTime;
+    private boolean mRenderWindowSkewed;
+    private @Nullable String mRecycledViewPoolId;
+    private SparseIntArray mRecycledViewPoolSizes = new SparseIntArray();
+
+    private boolean mScrollMetricsValid;
+    private int mScrollOffset;
+    private int mScrollRange;
+
+    /**
+     * Computes the scroll offset and range along the scroll axis at most once per change, so
+     * that all the events dispatched for the same scroll position share them.
+     */
+    private void updateScrollMetrics() {
+        if (!mScrollMetricsValid) {
+            mScrollMetricsValid = true;
+            mScrollOffset = mHorizontal ? computeHorizontalScrollOffset() : computeVerticalScrollOffset();
+            mScrollRange = mHorizontal ? computeHorizontalScrollRange() : computeVerticalScrollRange();
+        }
+    }
+
+    private void invalidateScrollMetrics() {
+        mScrollMetricsValid = false;
+    }
 
     @Override
     protected void onScrollChanged(int l, int t, int oldl, int oldt) {
         super.onScrollChanged(l, t, oldl, oldt);
+        invalidateScrollMetrics();
 
         if (mOnScrollDispatchHelper.onScrollChanged(l, t)) {
-            getReactContext().getNativeModule(UIManagerModule.class).getEventDispatcher()
-                    .dispatchEvent(ScrollEvent.obtain(
-                            getId(),
-                            ScrollEventType.SCROLL,
-                            0, /* offsetX = 0, horizontal scrolling only */
-                            computeVerticalScrollOffset(),
-                            mOnScrollDispatchHelper.getXFlingVelocity(),
-                            mOnScrollDispatchHelper.getYFlingVelocity(),
-                            getWidth(),
-                            computeVerticalScrollRange(),
-                            getWidth(),
-                            getHeight()));
-        }
-
-        final int firstIndex = ((LinearLayoutManager) getLayoutManager()).findFirstVisibleItemPosition();
-        final int lastIndex = ((LinearLayoutManager) getLayoutManager()).findLastVisibleItemPosition();
+            final long now = SystemClock.uptimeMillis();
+            if (now - mLastScrollEventTime >= mScrollEventThrottle) {
+                if (mScrollEventPending) {
+                    mScrollEventPending = false;
+                    removeCallbacks(mFlushScrollEventRunnable);
+                }
+                mLastScrollEventTime = now;
+                dispatchScrollEvent(
+                        ScrollEventType.SCROLL,
+                        mOnScrollDispatchHelper.getXFlingVelocity(),
+                        mOnScrollDispatchHelper.getYFlingVelocity());
+            } else if (!mScrollEventPending) {
+                // Delivered at the end of the throttle interval, so that JS always receives the
+                // last offset, even if the list stops moving without settling
+                mScrollEventPending = true;
+                postDelayed(mFlushScrollEventRunnable, mScrollEventThrottle - (now - mLastScrollEventTime));
+            }
+        }
 
-        if (firstIndex != mFirstVisibleIndex || lastIndex != mLastVisibleIndex) {
-            getReactContext().getNativeModule(UIManagerModule.class).getEventDispatcher()
-                    .dispatchEvent(new VisibleItemsChangeEvent(
-                            getId(),
-                            SystemClock.nanoTime(),
-                            firstIndex,
-                            lastIndex));
+        final int firstIndex = findFirstVisibleItemPosition();
+        final int lastIndex = findLastVisibleItemPosition();
+
+        schedulePrefetch();
+        checkEdgesReached(firstIndex, lastIndex);
 
-            mFirstVisibleIndex = firstIndex;
-            mLastVisibleIndex = lastIndex;
+        if (firstIndex != mFirstVisibleIndex || lastIndex != mLastVisibleIndex) {
+            final int direction = Integer.signum(firstIndex - mFirstVisibleIndex + lastIndex - mLastVisibleIndex);
+            if (direction != 0) {
+                mScrollDirection = direction;
+            }
+            dispatchVisibleItemsChange(firstIndex, lastIndex, direction, PixelUtil.toDIPFromPixel(mScrollVelocity));
         }
     }
 
-    private ReactContext getReactContext() {
-        return (ReactContext) ((ContextThemeWrapper) getContext()).getBaseContext();
+    /**
+     * Dispatches the visible items with the range JS should render around them. The range is
+     * skewed towards the scroll direction as the scroll gets faster.
+     *
+     * @param velocity the scroll speed, in dp per millisecond.
+     */
+    private void dispatchVisibleItemsChange(int firstIndex, int lastIndex, int direction, float velocity) {
+        final float speedRatio = Math.min(1f, velocity / FAST_SCROLL_VELOCITY);
+
+        // Rows ahead of the scroll get up to twice the window, rows behind it down to a half
+        final int ahead = mWindowSize + Math.round(mWindowSize * speedRatio);
+        final int behind = mWindowSize - Math.round(mWindowSize * speedRatio / 2);
+        final int before = direction < 0 ? ahead : (direction > 0 ? behind : mWindowSize);
+        final int after = direction > 0 ? ahead : (direction < 0 ? behind : mWindowSize);
+
+        final int renderFirstIndex = firstIndex == NO_POSITION ? NO_POSITION : Math.max(0, firstIndex - before);
+        final int renderLastIndex = lastIndex == NO_POSITION ? NO_POSITION : Math.min(getItemCount() - 1, lastIndex + after);
+
+        dispatchEvent(VisibleItemsChangeEvent.obtain(
+                getId(),
+                firstIndex,
+                lastIndex,
+                renderFirstIndex,
+                renderLastIndex));
+
+        mFirstVisibleIndex = firstIndex;
+        mLastVisibleIndex = lastIndex;
+        mRenderWindowSkewed = before != after;
     }
 
-    public RecyclerViewBackedScrollView(Context context) {
-        super(new ContextThemeWrapper(context, R.style.ScrollbarRecyclerView));
-        setHasFixedSize(true);
-        ((DefaultItemAnimator)getItemAnimator()).setSupportsChangeAnimations(false);
-        setLayoutManager(new LinearLayoutManager(context));
-        setAdapter(new ReactListAdapter(this));
-    }
+    /**
+     * RecyclerView scrolls by offsetting its children, so {@link #onScrollChanged} always gets the
+     * same offsets and can't tell how fast the list moves: the speed is measured here instead,
+     * from the distance scrolled since the previous frame. RecyclerView calls this right after
+     * {@link #onScrollChanged}, which therefore sees the speed of the previous frame.
+     */
+    @Override
+    public void onScrolled(int dx, int dy) {
+        super.onScrolled(dx, dy);
 
-    /*package*/ void addViewToAdapter(RecyclerViewItemView child, int index) {
-        ((ReactListAdapter) getAdapter()).addView(child, index);
+        final int distance = mHorizontal ? dx : dy;
+        // Layout passes report the scroll without any distance
+        if (distance == 0) {
+            return;
+        }
+        final long now = SystemClock.uptimeMillis();
+        final long elapsed = now - mLastScrolledTime;
+        mLastScrolledTime = now;
+        if (elapsed > MAX_SCROLL_FRAME_INTERVAL) {
+            // First frame of a new scroll: no previous frame to measure from
+            mScrollVelocity = 0;
+        } else if (elapsed > 0) {
+            mScrollVelocity = Math.abs(distance) / (float) elapsed;
+        }
     }
 
-    /*package*/ void removeViewFromAdapter(int index) {
-        ((ReactListAdapter) getAdapter()).removeViewAt(index);
+    @Override
+    public void onScrollStateChanged(int state) {
+        super.onScrollStateChanged(state);
+
+        if (state == SCROLL_STATE_IDLE) {
+            schedulePrefetch();
+        } else {
+            startFrameMonitor();
+        }
+
+        if (state == SCROLL_STATE_IDLE) {
+            flushPendingScrollEvent();
+
+            // Once the list stops, the rows behind the last scroll direction are as likely to be
+            // needed as those ahead of it
+            mScrollVelocity = 0;
+            if (mRenderWindowSkewed) {
+                dispatchVisibleItemsChange(findFirstVisibleItemPosition(), findLastVisibleItemPosition(), 0, 0);
+            }
+        }
     }
 
-    /*package*/ View getChildAtFromAdapter(int index) {
-        return ((ReactListAdapter) getAdapter()).getView(index);
+    private void flushPendingScrollEvent() {
+        if (mScrollEventPending) {
+            mScrollEventPending = false;
+            removeCallbacks(mFlushScrollEventRunnable);
+            mLastScrollEventTime = SystemClock.uptimeMillis();
+            dispatchScrollEvent(
+                    ScrollEventType.SCROLL,
+                    mOnScrollDispatchHelper.getXFlingVelocity(),
+                    mOnScrollDispatchHelper.getYFlingVelocity());
+        }
     }
 
-    /*package*/ int getChildCountFromAdapter() {
-        return ((ReactListAdapter) getAdapter()).getViewCount();
+    private final Runnable mFlushScrollEventRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flushPendingScrollEvent();
+        }
+    };
+
+    private float mEndReachedThreshold = -1;
+    private float mStartReachedThreshold = -1;
+    private boolean mReachedThresholdInRows;
+    private int mReachedItemCount = -1;
+    private boolean mEndReached;
+    private boolean mStartReached;
+
+    /**
+     * Distance from the last item within which an {@link EdgeReachedEvent#END_REACHED} event is
+     * dispatched, in viewport lengths or in rows, see {@link #setReachedThresholdUnit}. The event
+     * is disabled if it is negative.
+     */
+    public void setEndReachedThreshold(float threshold) {
+        mEndReachedThreshold = threshold;
+        mEndReached = false;
     }
 
-    /*package*/ void setItemCount(int itemCount) {
-        ((ReactListAdapter) getAdapter()).setItemCount(itemCount);
+    /**
+     * Like {@link #setEndReachedThreshold}, for the distance from the first item and
+     * {@link EdgeReachedEvent#START_REACHED} events.
+     */
+    public void setStartReachedThreshold(float threshold) {
+        mStartReachedThreshold = threshold;
+        mStartReached = false;
     }
 
-    /*package*/ int getItemCount() {
-        return getAdapter().getItemCount();
+    /**
+     * Whether the thresholds are in rows ({@code "rows"}) or in viewport lengths.
+     */
+    public void setReachedThresholdUnit(@Nullable String unit) {
+        mReachedThresholdInRows = "rows".equals(unit);
     }
 
-    @Override
-    public boolean onInterceptTouchEvent(MotionEvent ev) {
-        if (super.onInterceptTouchEvent(ev)) {
-            NativeGestureUtil.notifyNativeGestureStarted(this, ev);
-            mDragging = true;
-            getReactContext().getNativeModule(UIManagerModule.class).getEventDispatcher()
-                    .dispatchEvent(ScrollEvent.obtain(
-                            getId(),
-                            ScrollEventType.BEGIN_DRAG,
-                            0, /* offsetX = 0, horizontal scrolling only */
-                            computeVerticalScrollOffset(),
-                            0, // xVelocity
-                            0, // yVelocity
-                            getWidth(),
-                            computeVerticalScrollRange(),
-                            getWidth(),
-                            getHeight()));
-            return true;
+    /**
+     * Dispatches the edge reached events when the visible range gets within their threshold. Each
+     * of them is dispatched once, and again only after the item count changes: JS is expected to
+     * load more items in response.
+     */
+    private void checkEdgesReached(int firstIndex, int lastIndex) {
+        if (mEndReachedThreshold < 0 && mStartReachedThreshold < 0) {
+            return;
+        }
+        final int itemCount = getItemCount();
+        if (itemCount != mReachedItemCount) {
+            mReachedItemCount = itemCount;
+            mEndReached = false;
+            mStartReached = false;
+        }
+        if ((mEndReached || mEndReachedThreshold < 0) && (mStartReached || mStartReachedThreshold < 0)) {
+            return;
+        }
+        if (itemCount == 0 || firstIndex == NO_POSITION || lastIndex == NO_POSITION) {
+            return;
         }
 
-        return false;
+        // The scroll offset is measured from the top (left) of the list, where the last item is
+        // when the list is inverted
+        updateScrollMetrics();
+        final int viewportSize = mHorizontal
+                ? getWidth() - getPaddingLeft() - getPaddingRight()
+                : getHeight() - getPaddingTop() - getPaddingBottom();
+        final int distanceBefore = Math.max(0, mScrollOffset);
+        final int distanceAfter = Math.max(0, mScrollRange - mScrollOffset - (mHorizontal ? getWidth() : getHeight()));
+        final int distanceFromStart = mInverted ? distanceAfter : distanceBefore;
+        final int distanceFromEnd = mInverted ? distanceBefore : distanceAfter;
+
+        if (!mEndReached && mEndReachedThreshold >= 0
+                && isWithinThreshold(distanceFromEnd, itemCount - 1 - lastIndex, mEndReachedThreshold, viewportSize)) {
+            mEndReached = true;
+            dispatchEvent(EdgeReachedEvent.obtain(getId(), EdgeReachedEvent.END_REACHED, distanceFromEnd));
+        }
+        if (!mStartReached && mStartReachedThreshold >= 0
+                && isWithinThreshold(distanceFromStart, firstIndex, mStartReachedThreshold, viewportSize)) {
+            mStartReached = true;
+            dispatchEvent(EdgeReachedEvent.obtain(getId(), EdgeReachedEvent.START_REACHED, distanceFromStart));
+        }
     }
 
-    @Override
-    public boolean onTouchEvent(MotionEvent ev) {
-        int action = ev.getAction() & MotionEvent.ACTION_MASK;
-        if (action == MotionEvent.ACTION_UP && mDragging) {
-            mDragging = false;
-            mVelocityHelper.calculateVelocity(ev);
-            getReactContext().getNativeModule(UIManagerModule.class).getEventDispatcher()
-                    .dispatchEvent(ScrollEvent.obtain(
-                            getId(),
-                            ScrollEventType.END_DRAG,
-                            0, /* offsetX = 0, horizontal scrolling only */
-                            computeVerticalScrollOffset(),
-                            mVelocityHelper.getXVelocity(),
-                            mVelocityHelper.getYVelocity(),
-                            getWidth(),
-                            computeVerticalScrollRange(),
-                            getWidth(),
-                            getHeight()));
+    private boolean isWithinThreshold(int distance, int itemsBeyond, float threshold, int viewportSize) {
+        if (mReachedThresholdInRows) {
+            return itemsBeyond / getSpanCount() <= threshold;
         }
-        return super.onTouchEvent(ev);
+        return distance <= threshold * viewportSize;
     }
 
-    private boolean mRequestedLayout = false;
+    private void dispatchScrollEvent(ScrollEventType type, float xVelocity, float yVelocity) {
+        // ScrollEvent of type SCROLL can be coalesced: the EventDispatcher keys it by view tag, so
+        // when JS falls behind only the newest sample of this view is delivered.
+        updateScrollMetrics();
+        dispatchEvent(ScrollEvent.obtain(
+                getId(),
+                type,
+                mHorizontal ? mScrollOffset : 0,
+                mHorizontal ? 0 : mScrollOffset,
+                xVelocity,
+                yVelocity,
+                mHorizontal ? mScrollRange : getWidth(),
+                mHorizontal ? getHeight() : mScrollRange,
+                getWidth(),
+                getHeight()));
+    }
 
-    @Override
-    public void requestLayout() {
-        super.requestLayout();
+    /**
+     * Number of items to render before and after the visible ones when the list is not scrolling.
+     * During a fling the window is skewed towards the scroll direction and grows with the velocity.
+     */
+    public void setWindowSize(int windowSize) {
+        mWindowSize = windowSize;
+    }
 
-        if (!mRequestedLayout) {
-            mRequestedLayout = true;
-            this.post(new Runnable() {
-                @Override
-                public void run() {
-                    mRequestedLayout = false;
-                    layout(getLeft(), getTop(), getRight(), getBottom());
-                    onLayout(false, getLeft(), getTop(), getRight(), getBottom());
-                }
-            });
+    /**
+     * Minimum interval, in milliseconds, between two {@code onScroll} events, like the
+     * {@code scrollEventThrottle} prop of ScrollView.
+     */
+    public void setScrollEventThrottle(int scrollEventThrottle) {
+        mScrollEventThrottle = scrollEventThrottle;
+    }
+
+    private final ItemHeights mItemHeights = new ItemHeights();
+
+    /**
+     * Keeps {@link #mItemHeights} aligned with the positions of the adapter.
+     */
+    private final AdapterDataObserver mItemHeightsObserver = new AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            // The items may all be different: the heights measured so far no longer apply
+            mItemHeights.reset(getItemCount());
+            invalidateEdgeSeparators();
+            scheduleContentSizeCheck();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mItemHeights.insert(positionStart, itemCount);
+            invalidateEdgeSeparators();
+            scheduleContentSizeCheck();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mItemHeights.remove(positionStart, itemCount);
+            invalidateEdgeSeparators();
+            scheduleContentSizeCheck();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mItemHeights.move(fromPosition, toPosition);
+            invalidateEdgeSeparators();
+        }
+    };
+
+    /*package*/ void onRowMeasured(RecyclableWrapperViewGroup row, int height) {
+        final int position = getChildAdapterPosition(row);
+        if (position != NO_POSITION && height > 0) {
+            mItemHeights.set(position, height);
+            scheduleContentSizeCheck();
         }
     }
 
-    @Override
-    public void scrollToPosition(int position) {
-        this.scrollToPosition(position, new ScrollOptions());
+    private int mContentWidth = -1;
+    private int mContentHeight = -1;
+    private boolean mContentSizeCheckScheduled = false;
+    private boolean mContentSizeChangeEnabled = false;
+
+    /**
+     * Whether {@link ContentSizeChangeEvent} is dispatched; set only when JS listens to it.
+     */
+    public void setContentSizeChangeEnabled(boolean enabled) {
+        if (enabled && !mContentSizeChangeEnabled) {
+            // Report the current size to the new listener
+            mContentWidth = -1;
+            mContentHeight = -1;
+            scheduleContentSizeCheck();
+        }
+        mContentSizeChangeEnabled = enabled;
     }
 
-    public void scrollToPosition(final int position, final ScrollOptions options) {
-        if (options.viewPosition != null) {
-            final LinearLayoutManager layoutManager = (LinearLayoutManager) getLayoutManager();
-            final ReactListAdapter adapter = (ReactListAdapter) getAdapter();
-            final View view = adapter.getViewByItemIndex(position);
-            if (view != null) {
-                final int viewHeight = view.getHeight();
+    /**
+     * Dispatches {@link ContentSizeChangeEvent} at most once per frame, and only if it is enabled
+     * and the size of the content actually changed since the last event.
+     */
+    private final Choreographer.FrameCallback mContentSizeCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mContentSizeCheckScheduled = false;
 
-                // In order to calculate the correct offset, we need the height of the target view.
-                // If the height of the view is not available it means RN has not calculated it yet.
-                // So let's listen to the layout change and we will retry scrolling.
-                if (viewHeight == 0) {
-                    view.addOnLayoutChangeListener(new OnLayoutChangeListener() {
-                        @Override
-                        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
-                            view.removeOnLayoutChangeListener(this);
-                            scrollToPosition(position, options);
-                        }
-                    });
-                    return;
-                }
+            // Items added or measured may bring an edge within the threshold without any scroll
+            checkEdgesReached(findFirstVisibleItemPosition(), findLastVisibleItemPosition());
 
-                final int boxStart = layoutManager.getPaddingTop();
-                final int boxEnd = layoutManager.getHeight() - layoutManager.getPaddingBottom();
-                final int boxHeight = boxEnd - boxStart;
-                float viewOffset = options.viewOffset != null ? PixelUtil.toPixelFromDIP(options.viewOffset) : 0;
-                int offset = (int) ((boxHeight - viewHeight) * options.viewPosition + viewOffset);
-                layoutManager.scrollToPositionWithOffset(position, offset);
+            if (!mContentSizeChangeEnabled) {
+                return;
+            }
+            updateScrollMetrics();
+            final int width = mHorizontal
+                    ? mScrollRange - getPaddingLeft() - getPaddingRight()
+                    : getWidth();
+            final int height = mHorizontal
+                    ? getHeight()
+                    : mScrollRange - getPaddingTop() - getPaddingBottom();
+            if (width == mContentWidth && height == mContentHeight) {
                 return;
             }
+            mContentWidth = width;
+            mContentHeight = height;
+
+            dispatchEvent(ContentSizeChangeEvent.obtain(getId(), width, height));
         }
+    };
+
+    private void scheduleContentSizeCheck() {
+        // Called whenever the size of the content may have changed
+        invalidateScrollMetrics();
+        if (!mContentSizeCheckScheduled) {
+            mContentSizeCheckScheduled = true;
+            Choreographer.getInstance().postFrameCallback(mContentSizeCallback);
+        }
+    }
 
-        super.scrollToPosition(position);
+    private final long mFrameIntervalNanos;
+    private long mPrefetchBudgetNanos = -1;
+    private boolean mPrefetchScheduled;
+    private long mPrefetchFrameTimeNanos;
+    private int mScrollDirection;
+    private int mPrefetchFirstIndex = NO_POSITION;
+    private int mPrefetchLastIndex = NO_POSITION;
+    private int mPrefetchRenderFirstIndex = NO_POSITION;
+    private int mPrefetchRenderLastIndex = NO_POSITION;
+    private long mPrefetchMountStartNanos;
+    // Average time taken by the UI thread to mount a prefetched row, in milliseconds
+    private float mPrefetchMountTimePerRow = -1;
+
+    /**
+     * Minimum time, in milliseconds, that must be left in a frame to ask JS to render more rows
+     * while scrolling. When the list is idle the requests are sent anyway. A negative value
+     * disables prefetching.
+     */
+    public void setPrefetchBudget(int budgetMs) {
+        mPrefetchBudgetNanos = budgetMs < 0 ? -1 : budgetMs * 1000000L;
+        if (mPrefetchBudgetNanos >= 0) {
+            schedulePrefetch();
+        }
     }
 
-    @Override
-    public void smoothScrollToPosition(int position) {
-        this.smoothScrollToPosition(position, new ScrollOptions());
+    /*package*/ void schedulePrefetch() {
+        if (mPrefetchBudgetNanos >= 0 && !mPrefetchScheduled) {
+            mPrefetchScheduled = true;
+            Choreographer.getInstance().postFrameCallback(mPrefetchFrameCallback);
+        }
     }
 
-    public void smoothScrollToPosition(int position, final ScrollOptions options) {
-        final RecyclerView.SmoothScroller smoothScroller = new LinearSmoothScroller(this.getContext()) {
-            @Override
-            protected int getVerticalSnapPreference() {
-                return LinearSmoothScroller.SNAP_TO_START;
+    private final Choreographer.FrameCallback mPrefetchFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            // Frame callbacks run before the traversal: the time left in the frame is checked
+            // once the traversal is done, that is in the next message on the UI thread
+            mPrefetchFrameTimeNanos = frameTimeNanos;
+            post(mPrefetchRunnable);
+        }
+    };
+
+    private final Runnable mPrefetchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mPrefetchScheduled = false;
+
+            final boolean idle = getScrollState() == SCROLL_STATE_IDLE;
+            final long timeLeft = mPrefetchFrameTimeNanos + mFrameIntervalNanos - System.nanoTime();
+            if (!idle && timeLeft < mPrefetchBudgetNanos) {
+                // This frame is busy: try again in the next one
+                schedulePrefetch();
+                return;
             }
 
-            @Override
-            public PointF computeScrollVectorForPosition(int targetPosition) {
-                return ((LinearLayoutManager) this.getLayoutManager()).computeScrollVectorForPosition(targetPosition);
+            final int firstIndex = findFirstVisibleItemPosition();
+            final int lastIndex = findLastVisibleItemPosition();
+            if (firstIndex == NO_POSITION || lastIndex == NO_POSITION) {
+                return;
             }
 
-            @Override
-            protected float calculateSpeedPerPixel(DisplayMetrics displayMetrics) {
-                if (options.millisecondsPerInch != null) {
-                    return options.millisecondsPerInch / displayMetrics.densityDpi;
-                } else {
-                    return super.calculateSpeedPerPixel(displayMetrics);
-                }
+            // Rows already rendered by JS on both sides of the visible ones
+            final ReactListAdapter adapter = (ReactListAdapter) getAdapter();
+            final int itemCount = getItemCount();
+            int renderFirstIndex = firstIndex;
+            while (renderFirstIndex > 0 && adapter.getViewByItemIndex(renderFirstIndex - 1) != null) {
+                renderFirstIndex--;
+            }
+            int renderLastIndex = lastIndex;
+            while (renderLastIndex < itemCount - 1 && adapter.getViewByItemIndex(renderLastIndex + 1) != null) {
+                renderLastIndex++;
             }
 
-            @Override
-            public int calculateDtToFit(int viewStart, int viewEnd, int boxStart, int boxEnd, int snapPreference) {
-                int calc = super.calculateDtToFit(viewStart, viewEnd, boxStart, boxEnd, snapPreference);
-                if (options.viewPosition != null) {
-                    int viewHeight = viewEnd - viewStart;
-                    int boxHeight = boxEnd - boxStart;
-                    float viewOffset = options.viewOffset != null ? PixelUtil.toPixelFromDIP(options.viewOffset) : 0;
-                    float target = boxStart + (boxHeight - viewHeight) * options.viewPosition + viewOffset;
-                    return (int) (target - viewStart);
-                } else {
-                    return super.calculateDtToFit(viewStart, viewEnd, boxStart, boxEnd, snapPreference);
-                }
+            if ((renderFirstIndex == 0 && renderLastIndex == itemCount - 1) ||
+                    (firstIndex == mPrefetchFirstIndex && lastIndex == mPrefetchLastIndex &&
+                            renderFirstIndex == mPrefetchRenderFirstIndex && renderLastIndex == mPrefetchRenderLastIndex)) {
+                // Everything is rendered, or JS has not answered the last request: a new one will
+                // be sent when the rendered rows change
+                return;
             }
-        };
+            mPrefetchFirstIndex = firstIndex;
+            mPrefetchLastIndex = lastIndex;
+            mPrefetchRenderFirstIndex = renderFirstIndex;
+            mPrefetchRenderLastIndex = renderLastIndex;
+
+            dispatchEvent(PrefetchEvent.obtain(
+                    getId(),
+                    firstIndex,
+                    lastIndex,
+                    renderFirstIndex,
+                    renderLastIndex,
+                    mScrollDirection,
+                    idle,
+                    Math.max(0, timeLeft) / 1000000f,
+                    mPrefetchMountTimePerRow));
+        }
+    };
 
-        smoothScroller.setTargetPosition(position);
-        this.getLayoutManager().startSmoothScroll(smoothScroller);
+    /**
+     * Called on the UI thread before the views of the rows prefetched by JS are created, see
+     * {@link RNRecyclerviewListModule#startPrefetchMount}.
+     */
+    /*package*/ void onPrefetchMountStart() {
+        mPrefetchMountStartNanos = System.nanoTime();
     }
 
-    public void setInverted(boolean inverted) {
-        LinearLayoutManager layoutManager = (LinearLayoutManager) getLayoutManager();
-        layoutManager.setReverseLayout(inverted);
+    /**
+     * Called on the UI thread once the views of the prefetched rows are created and added to the
+     * list. The time it took is averaged with the previous batches and sent with the next
+     * {@link PrefetchEvent}, so that JS sizes the batches from what they cost to the UI thread.
+     */
+    /*package*/ void onPrefetchMountEnd(int rowCount) {
+        if (mPrefetchMountStartNanos == 0 || rowCount <= 0) {
+            return;
+        }
+        final float timePerRow = (System.nanoTime() - mPrefetchMountStartNanos) / 1000000f / rowCount;
+        mPrefetchMountStartNanos = 0;
+        mPrefetchMountTimePerRow = mPrefetchMountTimePerRow < 0
+                ? timePerRow
+                : (mPrefetchMountTimePerRow + timePerRow) / 2;
+    }
+
+    private @Nullable PerformanceMetrics mMetrics;
+    private @Nullable PerformanceMetrics mReportMetrics;
+    private int mPerformanceReportInterval;
+    private boolean mFrameMonitorRunning;
+    private long mLastFrameTimeNanos;
+    private boolean mFrameAccountingScheduled;
+
+    /**
+     * Collects {@link PerformanceMetrics}, readable through {@link RNRecyclerviewListModule}.
+     */
+    public void setPerformanceMetricsEnabled(boolean enabled) {
+        if (enabled == (mMetrics != null)) {
+            return;
+        }
+        if (enabled) {
+            mMetrics = new PerformanceMetrics();
+            mReportMetrics = new PerformanceMetrics();
+            if (getScrollState() != SCROLL_STATE_IDLE) {
+                startFrameMonitor();
+            }
+        } else {
+            mMetrics = null;
+            mReportMetrics = null;
+            stopFrameMonitor();
+            stopFrameAccounting();
+        }
+        schedulePerformanceReport();
+    }
+
+    /**
+     * Interval, in milliseconds, between two {@link PerformanceReportEvent} with the metrics
+     * collected in the meantime. Reports are not sent if it is not positive.
+     */
+    public void setPerformanceReportInterval(int interval) {
+        mPerformanceReportInterval = interval;
+        schedulePerformanceReport();
+    }
+
+    /*package*/ @Nullable PerformanceMetrics getPerformanceMetrics() {
+        return mMetrics;
+    }
+
+    /*package*/ boolean isCollectingMetrics() {
+        return mMetrics != null;
+    }
+
+    /*package*/ void recordBind(long nanos, boolean blank) {
+        if (mMetrics != null) {
+            mMetrics.recordBind(nanos, blank);
+            mReportMetrics.recordBind(nanos, blank);
+            scheduleFrameAccounting();
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        final long start = mMetrics != null ? System.nanoTime() : 0;
+        super.onLayout(changed, l, t, r, b);
+        invalidateScrollMetrics();
+        if (start != 0 && mMetrics != null) {
+            final long nanos = System.nanoTime() - start;
+            mMetrics.recordLayout(nanos);
+            mReportMetrics.recordLayout(nanos);
+            scheduleFrameAccounting();
+        }
+    }
+
+    private void startFrameMonitor() {
+        if (mMetrics != null && !mFrameMonitorRunning) {
+            mFrameMonitorRunning = true;
+            mLastFrameTimeNanos = 0;
+            Choreographer.getInstance().postFrameCallback(mFrameMonitorCallback);
+        }
+    }
+
+    private void stopFrameMonitor() {
+        if (mFrameMonitorRunning) {
+            mFrameMonitorRunning = false;
+            Choreographer.getInstance().removeFrameCallback(mFrameMonitorCallback);
+        }
+    }
+
+    /**
+     * Measures the interval between consecutive frames while the list scrolls, and stops as soon
+     * as it is idle so that it does not keep the UI thread awake.
+     */
+    private final Choreographer.FrameCallback mFrameMonitorCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (mMetrics == null || getScrollState() == SCROLL_STATE_IDLE) {
+                mFrameMonitorRunning = false;
+                return;
+            }
+            if (mLastFrameTimeNanos != 0) {
+                mMetrics.recordFrame(frameTimeNanos - mLastFrameTimeNanos, mFrameIntervalNanos);
+                mReportMetrics.recordFrame(frameTimeNanos - mLastFrameTimeNanos, mFrameIntervalNanos);
+            }
+            mLastFrameTimeNanos = frameTimeNanos;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    };
+
+    /**
+     * Closes the frame of the binds, layout passes and events recorded so far at the beginning of
+     * the next one, so that the metrics keep the most work done within a single frame. It is only
+     * posted after some work has been recorded, so an idle list does not receive frame callbacks.
+     */
+    private void scheduleFrameAccounting() {
+        if (!mFrameAccountingScheduled) {
+            mFrameAccountingScheduled = true;
+            Choreographer.getInstance().postFrameCallback(mFrameAccountingCallback);
+        }
+    }
+
+    private void stopFrameAccounting() {
+        if (mFrameAccountingScheduled) {
+            mFrameAccountingScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(mFrameAccountingCallback);
+        }
+    }
+
+    private final Choreographer.FrameCallback mFrameAccountingCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mFrameAccountingScheduled = false;
+            if (mMetrics != null) {
+                mMetrics.closeFrame();
+                mReportMetrics.closeFrame();
+            }
+        }
+    };
+
+    private void schedulePerformanceReport() {
+        removeCallbacks(mPerformanceReportRunnable);
+        if (mMetrics != null && mPerformanceReportInterval > 0) {
+            postDelayed(mPerformanceReportRunnable, mPerformanceReportInterval);
+        }
+    }
+
+    private final Runnable mPerformanceReportRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (mReportMetrics == null) {
+                return;
+            }
+            if (!mReportMetrics.isEmpty()) {
+                dispatchEvent(new PerformanceReportEvent(getId(), mReportMetrics.toWritableMap()));
+                mReportMetrics.reset();
+            }
+            schedulePerformanceReport();
+        }
+    };
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        schedulePerformanceReport();
+    }
+
+    private static long getFrameIntervalNanos(Context context) {
+        final float refreshRate = ((WindowManager) context.getSystemService(Context.WINDOW_SERVICE))
+                .getDefaultDisplay().getRefreshRate();
+        return (long) (1000000000 / (refreshRate >= 30 ? refreshRate : 60));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (w != oldw || h != oldh) {
+            scheduleContentSizeCheck();
+        }
+    }
+
+    /**
+     * Height used for the items that have not been measured yet, in pixels. A negative value means
+     * that the average height of the measured items is used.
+     */
+    public void setEstimatedItemHeight(int estimatedItemHeight) {
+        mItemHeights.setEstimatedHeight(estimatedItemHeight);
+        scheduleContentSizeCheck();
+    }
+
+    /**
+     * Declares the height, in pixels, of every item, so that rows can be sized and scrolled to
+     * before JS renders them. A negative value means that heights are measured.
+     */
+    public void setItemHeight(int itemHeight) {
+        mItemHeights.setFixedHeight(itemHeight);
+        scheduleContentSizeCheck();
+    }
+
+    /**
+     * Declares the heights of the items from the given position, in pixels, encoded as consecutive
+     * {@code (count, height)} runs; items in a run with a negative height keep their measured
+     * height.
+     */
+    /*package*/ void setItemLayouts(int start, int[] runs) {
+        mItemHeights.setKnownHeights(start, runs);
+        scheduleContentSizeCheck();
+    }
+
+    /**
+     * Sets the DataSource keys, hashed with {@link RecyclerViewItemView#hashKey}, of the items from
+     * the given position; they are the stable ids of the items.
+     */
+    /*package*/ void setItemKeys(int start, long[] hashes) {
+        ((ReactListAdapter) getAdapter()).setItemIds(start, hashes);
+    }
+
+    /**
+     * @return the declared or measured height of the item bound to the given row, or 0 if unknown.
+     */
+    /*package*/ int getKnownItemHeight(RecyclableWrapperViewGroup row) {
+        final int position = getChildAdapterPosition(row);
+        return mItemHeights.isKnown(position) ? mItemHeights.getHeight(position) : 0;
+    }
+
+    /**
+     * Unlike {@link LinearLayoutManager}, which estimates the offset from the attached rows only,
+     * this is computed from the sizes of all the measured items. Grid layouts keep using the
+     * estimate of their layout manager.
+     */
+    @Override
+    public int computeVerticalScrollOffset() {
+        if (mHorizontal || !isLinearLayout()) {
+            return super.computeVerticalScrollOffset();
+        }
+        return computeScrollOffsetFromItemSizes();
+    }
+
+    @Override
+    public int computeHorizontalScrollOffset() {
+        if (!mHorizontal || !isLinearLayout()) {
+            return super.computeHorizontalScrollOffset();
+        }
+        return computeScrollOffsetFromItemSizes();
+    }
+
+    @Override
+    public int computeVerticalScrollRange() {
+        if (mHorizontal || !isLinearLayout() || mItemHeights.getCount() == 0) {
+            return super.computeVerticalScrollRange();
+        }
+        return mItemHeights.getTotalHeight() + getPaddingTop() + getPaddingBottom();
+    }
+
+    @Override
+    public int computeHorizontalScrollRange() {
+        if (!mHorizontal || !isLinearLayout() || mItemHeights.getCount() == 0) {
+            return super.computeHorizontalScrollRange();
+        }
+        return mItemHeights.getTotalHeight() + getPaddingLeft() + getPaddingRight();
+    }
+
+    private int computeScrollOffsetFromItemSizes() {
+        final LayoutManager layoutManager = getLayoutManager();
+
+        View leadingChild = null;
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (leadingChild == null || (mHorizontal
+                    ? child.getLeft() < leadingChild.getLeft()
+                    : child.getTop() < leadingChild.getTop())) {
+                leadingChild = child;
+            }
+        }
+
+        final int position = leadingChild != null ? getChildAdapterPosition(leadingChild) : NO_POSITION;
+        if (position == NO_POSITION) {
+            return mHorizontal ? super.computeHorizontalScrollOffset() : super.computeVerticalScrollOffset();
+        }
+
+        final int itemsBefore = mInverted
+                ? mItemHeights.getTotalHeight() - mItemHeights.getOffset(position + 1)
+                : mItemHeights.getOffset(position);
+        final int childStart = mHorizontal
+                ? layoutManager.getDecoratedLeft(leadingChild) - getPaddingLeft()
+                : layoutManager.getDecoratedTop(leadingChild) - getPaddingTop();
+        return Math.max(0, itemsBefore - childStart);
+    }
+
+    /**
+     * Scrolls to the given offset, in pixels, from the start of the content. The target item is
+     * found from the measured sizes, so it works even if the item has never been rendered.
+     */
+    public void scrollToOffset(int offset, boolean animated) {
+        final int currentOffset = mHorizontal ? computeHorizontalScrollOffset() : computeVerticalScrollOffset();
+        if (animated) {
+            smoothScrollBy(mHorizontal ? offset - currentOffset : 0, mHorizontal ? 0 : offset - currentOffset);
+            return;
+        }
+
+        if (!isLinearLayout()) {
+            scrollBy(mHorizontal ? offset - currentOffset : 0, mHorizontal ? 0 : offset - currentOffset);
+            return;
+        }
+
+        if (mItemHeights.getCount() == 0) {
+            return;
+        }
+
+        final int viewportSize = mHorizontal
+                ? getWidth() - getPaddingLeft() - getPaddingRight()
+                : getHeight() - getPaddingTop() - getPaddingBottom();
+
+        // Distance from the start of the layout, that is the end of the content when inverted
+        final int distance = Math.max(0, mInverted
+                ? mItemHeights.getTotalHeight() - offset - viewportSize
+                : offset);
+        final int position = mItemHeights.findPosition(distance);
+        scrollToPositionWithOffset(position, mItemHeights.getOffset(position) - distance);
+    }
+
+    /*package*/ ReactContext getReactContext() {
+        return (ReactContext) ((ContextThemeWrapper) getContext()).getBaseContext();
+    }
+
+    private @Nullable EventDispatcher mEventDispatcher;
+
+    /**
+     * The dispatcher is looked up once: scroll and gesture events are dispatched on every frame.
+     */
+    private EventDispatcher getEventDispatcher() {
+        if (mEventDispatcher == null) {
+            mEventDispatcher = getReactContext().getNativeModule(UIManagerModule.class).getEventDispatcher();
+        }
+        return mEventDispatcher;
+    }
+
+    /**
+     * Dispatches an event of the list to JS, counting it in the {@link PerformanceMetrics}.
+     */
+    private void dispatchEvent(Event event) {
+        if (getId() == View.NO_ID) {
+            // Not mounted by React, e.g. a list replaying a trace: nobody listens to its events
+            return;
+        }
+        getEventDispatcher().dispatchEvent(event);
+        if (mMetrics != null) {
+            mMetrics.recordEvent();
+            mReportMetrics.recordEvent();
+            scheduleFrameAccounting();
+        }
+    }
+
+    public RecyclerViewBackedScrollView(Context context) {
+        super(new ContextThemeWrapper(context, R.style.ScrollbarRecyclerView));
+        setHasFixedSize(true);
+        ((DefaultItemAnimator)getItemAnimator()).setSupportsChangeAnimations(false);
+        setLayoutManager(new LinearLayoutManager(context));
+        setHorizontalScrollBarEnabled(false);
+        setAdapter(new ReactListAdapter(this));
+        getAdapter().registerAdapterDataObserver(mItemHeightsObserver);
+        mFrameIntervalNanos = getFrameIntervalNanos(context);
+    }
+
+    /*package*/ void addViewToAdapter(RecyclerViewItemView child, int index) {
+        ((ReactListAdapter) getAdapter()).addView(child, index);
+    }
+
+    /*package*/ void removeViewFromAdapter(int index) {
+        ((ReactListAdapter) getAdapter()).removeViewAt(index);
+    }
+
+    /*package*/ View getChildAtFromAdapter(int index) {
+        return ((ReactListAdapter) getAdapter()).getView(index);
+    }
+
+    /*package*/ int getChildCountFromAdapter() {
+        return ((ReactListAdapter) getAdapter()).getViewCount();
+    }
+
+    /*package*/ void setItemCount(int itemCount) {
+        ((ReactListAdapter) getAdapter()).setItemCount(itemCount);
+    }
+
+    /*package*/ int getItemCount() {
+        return getAdapter().getItemCount();
+    }
+
+    /**
+     * Replaces the dataset by diffing the old and new keys, and applies the resulting range
+     * notifications to the adapter right away, on the UI thread. The command is sent by JS before
+     * the rows re-rendered for the new dataset, so those rows are always bound to positions of
+     * the new dataset. Beyond the edit distance of {@link KeyDiff} the list is refreshed instead.
+     */
+    /*package*/ void notifyDataSetChangedWithKeys(ReadableArray oldKeys, ReadableArray newKeys) {
+        final long[] newHashes = hashKeys(newKeys);
+        final int[] ops = KeyDiff.compute(hashKeys(oldKeys), newHashes);
+        final ReactListAdapter adapter = (ReactListAdapter) getAdapter();
+        if (ops != null && adapter.getItemCount() == oldKeys.size()) {
+            adapter.applyUpdates(ops);
+        } else {
+            adapter.setItemCount(newHashes.length);
+            adapter.notifyDataSetChanged();
+        }
+        // The new keys are the ids of the items from now on
+        adapter.setItemIds(0, newHashes);
+    }
+
+    private static long[] hashKeys(ReadableArray keys) {
+        final long[] hashes = new long[keys.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = RecyclerViewItemView.hashKey(keys.getString(i));
+        }
+        return hashes;
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        if (super.onInterceptTouchEvent(ev)) {
+            NativeGestureUtil.notifyNativeGestureStarted(this, ev);
+            mDragging = true;
+            dispatchScrollEvent(ScrollEventType.BEGIN_DRAG, 0, 0);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent ev) {
+        int action = ev.getAction() & MotionEvent.ACTION_MASK;
+        if (action == MotionEvent.ACTION_UP && mDragging) {
+            mDragging = false;
+            mVelocityHelper.calculateVelocity(ev);
+            dispatchScrollEvent(
+                    ScrollEventType.END_DRAG,
+                    mVelocityHelper.getXVelocity(),
+                    mVelocityHelper.getYVelocity());
+        }
+        return super.onTouchEvent(ev);
+    }
+
+    private final List<View> mDirtyRows = new ArrayList<>();
+    private boolean mLayoutScheduled = false;
+
+    /**
+     * Runs at most one layout pass per frame, before the frame is drawn. Only the rows whose
+     * height changed are forced to measure again, the others are laid out from their cached size.
+     */
+    private final Choreographer.FrameCallback mLayoutCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mLayoutScheduled = false;
+
+            boolean hasDirtyRows = false;
+            for (int i = 0; i < mDirtyRows.size(); i++) {
+                if (mDirtyRows.get(i).getParent() == RecyclerViewBackedScrollView.this) {
+                    hasDirtyRows = true;
+                    break;
+                }
+            }
+            mDirtyRows.clear();
+
+            // Nothing to do if the regular traversal already laid out the list
+            if (!hasDirtyRows && !isLayoutRequested()) {
+                return;
+            }
+
+            forceLayout();
+            measure(
+                    MeasureSpec.makeMeasureSpec(getWidth(), MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(getHeight(), MeasureSpec.EXACTLY));
+            layout(getLeft(), getTop(), getRight(), getBottom());
+        }
+    };
+
+    @Override
+    public void requestLayout() {
+        super.requestLayout();
+
+        // It may be called by the super constructor, before the callback is initialized
+        if (mLayoutCallback != null) {
+            scheduleLayout();
+        }
+    }
+
+    /*package*/ void onRowLayoutChanged(RecyclableWrapperViewGroup row) {
+        if (!mDirtyRows.contains(row)) {
+            mDirtyRows.add(row);
+        }
+        row.forceLayout();
+        scheduleLayout();
+    }
+
+    private void scheduleLayout() {
+        if (!mLayoutScheduled) {
+            mLayoutScheduled = true;
+            Choreographer.getInstance().postFrameCallback(mLayoutCallback);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        if (mLayoutScheduled) {
+            mLayoutScheduled = false;
+            mDirtyRows.clear();
+            Choreographer.getInstance().removeFrameCallback(mLayoutCallback);
+        }
+        if (mContentSizeCheckScheduled) {
+            mContentSizeCheckScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(mContentSizeCallback);
+        }
+        if (mPrefetchScheduled) {
+            mPrefetchScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(mPrefetchFrameCallback);
+            removeCallbacks(mPrefetchRunnable);
+        }
+        stopFrameMonitor();
+        stopFrameAccounting();
+        removeCallbacks(mPerformanceReportRunnable);
+        if (mScrollEventPending) {
+            mScrollEventPending = false;
+            removeCallbacks(mFlushScrollEventRunnable);
+        }
+    }
+
+    @Override
+    public void scrollToPosition(int position) {
+        this.scrollToPosition(position, new ScrollOptions());
+    }
+
+    public void scrollToPosition(final int position, final ScrollOptions options) {
+        if (options.viewPosition != null) {
+            final ReactListAdapter adapter = (ReactListAdapter) getAdapter();
+            final View view = adapter.getViewByItemIndex(position);
+
+            // When the size of the item has been declared, or measured before, there is no need
+            // to wait for the view to be laid out.
+            int viewSize = mItemHeights.isKnown(position) ? mItemHeights.getHeight(position) : 0;
+
+            if (viewSize == 0 && view != null) {
+                viewSize = mHorizontal ? view.getWidth() : view.getHeight();
+
+                // In order to calculate the correct offset, we need the size of the target view.
+                // If the size of the view is not available it means RN has not calculated it yet.
+                // So let's listen to the layout change and we will retry scrolling.
+                if (viewSize == 0) {
+                    view.addOnLayoutChangeListener(new OnLayoutChangeListener() {
+                        @Override
+                        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                            view.removeOnLayoutChangeListener(this);
+                            scrollToPosition(position, options);
+                        }
+                    });
+                    return;
+                }
+            }
+
+            if (viewSize > 0) {
+                final int boxStart = mHorizontal ? getPaddingLeft() : getPaddingTop();
+                final int boxEnd = mHorizontal ? getWidth() - getPaddingRight() : getHeight() - getPaddingBottom();
+                final int boxSize = boxEnd - boxStart;
+                float viewOffset = options.viewOffset != null ? PixelUtil.toPixelFromDIP(options.viewOffset) : 0;
+                int offset = (int) ((boxSize - viewSize) * options.viewPosition + viewOffset);
+                scrollToPositionWithOffset(position, offset);
+                return;
+            }
+        }
+
+        super.scrollToPosition(position);
+    }
+
+    @Override
+    public void smoothScrollToPosition(int position) {
+        this.smoothScrollToPosition(position, new ScrollOptions());
+    }
+
+    public void smoothScrollToPosition(int position, final ScrollOptions options) {
+        final RecyclerView.SmoothScroller smoothScroller = new LinearSmoothScroller(this.getContext()) {
+            @Override
+            protected int getVerticalSnapPreference() {
+                return LinearSmoothScroller.SNAP_TO_START;
+            }
+
+            @Override
+            protected int getHorizontalSnapPreference() {
+                return LinearSmoothScroller.SNAP_TO_START;
+            }
+
+            @Override
+            public PointF computeScrollVectorForPosition(int targetPosition) {
+                final int firstPosition = findFirstVisibleItemPosition();
+                if (firstPosition == NO_POSITION) {
+                    return null;
+                }
+                final int direction = (targetPosition < firstPosition) != mInverted ? -1 : 1;
+                return mHorizontal ? new PointF(direction, 0) : new PointF(0, direction);
+            }
+
+            @Override
+            protected float calculateSpeedPerPixel(DisplayMetrics displayMetrics) {
+                if (options.millisecondsPerInch != null) {
+                    return options.millisecondsPerInch / displayMetrics.densityDpi;
+                } else {
+                    return super.calculateSpeedPerPixel(displayMetrics);
+                }
+            }
+
+            @Override
+            public int calculateDtToFit(int viewStart, int viewEnd, int boxStart, int boxEnd, int snapPreference) {
+                int calc = super.calculateDtToFit(viewStart, viewEnd, boxStart, boxEnd, snapPreference);
+                if (options.viewPosition != null) {
+                    int viewSize = viewEnd - viewStart;
+                    int boxSize = boxEnd - boxStart;
+                    float viewOffset = options.viewOffset != null ? PixelUtil.toPixelFromDIP(options.viewOffset) : 0;
+                    float target = boxStart + (boxSize - viewSize) * options.viewPosition + viewOffset;
+                    return (int) (target - viewStart);
+                } else {
+                    return super.calculateDtToFit(viewStart, viewEnd, boxStart, boxEnd, snapPreference);
+                }
+            }
+        };
+
+        smoothScroller.setTargetPosition(position);
+        this.getLayoutManager().startSmoothScroll(smoothScroller);
+    }
+
+    public void setInverted(boolean inverted) {
+        mInverted = inverted;
+        LayoutManager layoutManager = getLayoutManager();
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            ((StaggeredGridLayoutManager) layoutManager).setReverseLayout(inverted);
+        } else {
+            ((LinearLayoutManager) layoutManager).setReverseLayout(inverted);
+        }
+        updateItemSpacing();
+    }
+
+    /**
+     * Switches between a linear list and a grid of {@code spanCount} columns, with cells of equal
+     * ({@link #LAYOUT_MODE_GRID}) or independent ({@link #LAYOUT_MODE_STAGGERED}) heights. In every
+     * mode each item is a separate, independently recycled row of the same adapter.
+     */
+    public void setLayoutMode(String layoutMode, int spanCount) {
+        spanCount = Math.max(1, spanCount);
+        if (layoutMode.equals(mLayoutMode) && spanCount == mSpanCount) {
+            return;
+        }
+        mLayoutMode = layoutMode;
+        mSpanCount = spanCount;
+        updateLayoutManager();
+    }
+
+    /**
+     * Scrolls and lays out the items horizontally. Scroll events, visible items and scroll offsets
+     * are then computed along the horizontal axis.
+     */
+    public void setHorizontal(boolean horizontal) {
+        if (horizontal == mHorizontal) {
+            return;
+        }
+        mHorizontal = horizontal;
+        setVerticalScrollBarEnabled(!horizontal);
+        setHorizontalScrollBarEnabled(horizontal);
+        updateLayoutManager();
+    }
+
+    /*package*/ boolean isHorizontal() {
+        return mHorizontal;
+    }
+
+    /*package*/ boolean isInverted() {
+        return mInverted;
+    }
+
+    /*package*/ @Nullable RecyclerViewItemView getViewByItemIndex(int position) {
+        return ((ReactListAdapter) getAdapter()).getViewByItemIndex(position);
+    }
+
+    private @Nullable SeparatorItemDecoration mSeparatorDecoration;
+
+    /**
+     * Draws separators between the rows, with keys {@code color}, {@code thickness},
+     * {@code insetStart} and {@code insetEnd} (in dp), {@code skipLast} and {@code honorInverted}.
+     * {@code null} removes them.
+     */
+    public void setNativeSeparator(@Nullable ReadableMap separator) {
+        if (separator == null) {
+            if (mSeparatorDecoration != null) {
+                removeItemDecoration(mSeparatorDecoration);
+                mSeparatorDecoration = null;
+            }
+        } else {
+            final boolean added = mSeparatorDecoration != null;
+            if (!added) {
+                mSeparatorDecoration = new SeparatorItemDecoration();
+            }
+            mSeparatorDecoration.setStyle(
+                    separator.hasKey("color") && !separator.isNull("color") ? separator.getInt("color") : 0,
+                    getDimension(separator, "thickness", 1),
+                    getDimension(separator, "insetStart", 0),
+                    getDimension(separator, "insetEnd", 0),
+                    !separator.hasKey("skipLast") || separator.getBoolean("skipLast"),
+                    !separator.hasKey("honorInverted") || separator.getBoolean("honorInverted"));
+            if (added) {
+                invalidateItemDecorations();
+            } else {
+                addItemDecoration(mSeparatorDecoration);
+            }
+        }
+
+        updateItemSpacing();
+    }
+
+    private void updateItemSpacing() {
+        if (mSeparatorDecoration != null) {
+            mItemHeights.setSpacing(
+                    mSeparatorDecoration.getThickness(),
+                    mSeparatorDecoration.skipsFirst(mInverted),
+                    mSeparatorDecoration.skipsLast(mInverted));
+        } else {
+            mItemHeights.setSpacing(0, false, false);
+        }
+        scheduleContentSizeCheck();
+    }
+
+    /**
+     * Makes RecyclerView recompute the offsets it caches for the separator of each row, if the
+     * separator of a row depends on it being the first or the last one: after rows are added,
+     * removed or moved, another row may be at the edge.
+     */
+    private void invalidateEdgeSeparators() {
+        if (mSeparatorDecoration != null
+                && (mSeparatorDecoration.skipsFirst(mInverted) || mSeparatorDecoration.skipsLast(mInverted))) {
+            invalidateItemDecorations();
+        }
+    }
+
+    private static int getDimension(ReadableMap map, String key, float defaultValue) {
+        final double value = map.hasKey(key) && !map.isNull(key) ? map.getDouble(key) : defaultValue;
+        return Math.round(PixelUtil.toPixelFromDIP(value));
+    }
+
+    private final StickyHeaderItemDecoration mStickyHeaderDecoration = new StickyHeaderItemDecoration();
+
+    /**
+     * Positions of the items pinned to the start of the list while their section is scrolled, like
+     * the {@code stickyHeaderIndices} prop of ScrollView.
+     */
+    public void setStickyHeaderIndices(@Nullable ReadableArray stickyHeaderIndices) {
+        final int[] indices = new int[stickyHeaderIndices != null ? stickyHeaderIndices.size() : 0];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = stickyHeaderIndices.getInt(i);
+        }
+
+        final boolean wasEmpty = mStickyHeaderDecoration.isEmpty();
+        mStickyHeaderDecoration.setStickyIndices(indices);
+        if (wasEmpty && indices.length > 0) {
+            addItemDecoration(mStickyHeaderDecoration);
+        } else if (!wasEmpty && indices.length == 0) {
+            removeItemDecoration(mStickyHeaderDecoration);
+        } else {
+            invalidate();
+        }
+    }
+
+    /**
+     * Rows set as full span, those carrying the header or the footer, take a whole line of the
+     * grid.
+     */
+    private final GridLayoutManager.SpanSizeLookup mSpanSizeLookup = new GridLayoutManager.SpanSizeLookup() {
+        @Override
+        public int getSpanSize(int position) {
+            final RecyclerViewItemView view = ((ReactListAdapter) getAdapter()).getViewByItemIndex(position);
+            return view != null && view.isFullSpan() ? mSpanCount : 1;
+        }
+    };
+
+    private void updateLayoutManager() {
+        final int orientation = mHorizontal ? LinearLayoutManager.HORIZONTAL : LinearLayoutManager.VERTICAL;
+        final LayoutManager layoutManager;
+        if (LAYOUT_MODE_GRID.equals(mLayoutMode)) {
+            final GridLayoutManager gridLayoutManager = new GridLayoutManager(getContext(), mSpanCount, orientation, mInverted);
+            gridLayoutManager.setSpanSizeLookup(mSpanSizeLookup);
+            layoutManager = gridLayoutManager;
+        } else if (LAYOUT_MODE_STAGGERED.equals(mLayoutMode)) {
+            layoutManager = new StaggeredGridLayoutManager(mSpanCount, orientation);
+        } else {
+            layoutManager = new LinearLayoutManager(getContext(), orientation, mInverted);
+        }
+        setLayoutManager(layoutManager);
+        setInverted(mInverted);
+    }
+
+    /*package*/ String getLayoutMode() {
+        return mLayoutMode;
+    }
+
+    /*package*/ int getSpanCount() {
+        return mSpanCount;
+    }
+
+    private boolean isLinearLayout() {
+        return LAYOUT_MODE_LINEAR.equals(mLayoutMode);
+    }
+
+    private int[] mSpanPositions = new int[0];
+
+    /**
+     * Reused to query the visible positions of each span of a staggered grid on every scroll.
+     */
+    private int[] getSpanPositions() {
+        if (mSpanPositions.length != mSpanCount) {
+            mSpanPositions = new int[mSpanCount];
+        }
+        return mSpanPositions;
+    }
+
+    /*package*/ int findFirstVisibleItemPosition() {
+        LayoutManager layoutManager = getLayoutManager();
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            int first = NO_POSITION;
+            for (int position : ((StaggeredGridLayoutManager) layoutManager).findFirstVisibleItemPositions(getSpanPositions())) {
+                if (position != NO_POSITION && (first == NO_POSITION || position < first)) {
+                    first = position;
+                }
+            }
+            return first;
+        }
+        return ((LinearLayoutManager) layoutManager).findFirstVisibleItemPosition();
+    }
+
+    /*package*/ int findLastVisibleItemPosition() {
+        LayoutManager layoutManager = getLayoutManager();
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            int last = NO_POSITION;
+            for (int position : ((StaggeredGridLayoutManager) layoutManager).findLastVisibleItemPositions(getSpanPositions())) {
+                last = Math.max(last, position);
+            }
+            return last;
+        }
+        return ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+    }
+
+    private void scrollToPositionWithOffset(int position, int offset) {
+        LayoutManager layoutManager = getLayoutManager();
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            ((StaggeredGridLayoutManager) layoutManager).scrollToPositionWithOffset(position, offset);
+        } else {
+            ((LinearLayoutManager) layoutManager).scrollToPositionWithOffset(position, offset);
+        }
+    }
+
+    /**
+     * Sets the maximum number of recycled holders kept for each item type. Types left out get
+     * the default size of {@link RecycledViewPool} back. On a shared pool, each type keeps the
+     * largest size set by the lists using it.
+     */
+    public void setRecycledViewPoolSizes(@Nullable ReadableMap poolSizes) {
+        final SparseIntArray sizes = new SparseIntArray();
+        if (poolSizes != null) {
+            ReadableMapKeySetIterator iterator = poolSizes.keySetIterator();
+            while (iterator.hasNextKey()) {
+                String itemType = iterator.nextKey();
+                sizes.put(RecyclerViewItemView.getViewTypeId(itemType), poolSizes.getInt(itemType));
+            }
+        }
+
+        if (mRecycledViewPoolId != null) {
+            getReactContext().getNativeModule(RNRecyclerviewListModule.class)
+                    .setRecycledViewPoolSizes(mRecycledViewPoolId, this, sizes);
+        } else {
+            updateRecycledViewPoolSizes(getRecycledViewPool(), mRecycledViewPoolSizes, sizes);
+        }
+        mRecycledViewPoolSizes = sizes;
+    }
+
+    /**
+     * Applies the new sizes to the pool, and resets the types that only had an old size to the
+     * default size.
+     */
+    /*package*/ static void updateRecycledViewPoolSizes(RecycledViewPool pool, SparseIntArray oldSizes, SparseIntArray newSizes) {
+        for (int i = 0; i < oldSizes.size(); i++) {
+            if (newSizes.indexOfKey(oldSizes.keyAt(i)) < 0) {
+                pool.setMaxRecycledViews(oldSizes.keyAt(i), DEFAULT_MAX_RECYCLED_VIEWS);
+            }
+        }
+        for (int i = 0; i < newSizes.size(); i++) {
+            pool.setMaxRecycledViews(newSizes.keyAt(i), newSizes.valueAt(i));
+        }
+    }
+
+    /**
+     * Shares the recycled holders with every other list using the same pool id, e.g. the
+     * horizontal lists nested in a vertical one. A {@code null} id gives the list a private pool.
+     */
+    public void setRecycledViewPoolId(@Nullable String poolId) {
+        if (poolId == null ? mRecycledViewPoolId == null : poolId.equals(mRecycledViewPoolId)) {
+            return;
+        }
+
+        final RNRecyclerviewListModule module = getReactContext().getNativeModule(RNRecyclerviewListModule.class);
+        if (mRecycledViewPoolId != null) {
+            module.releaseRecycledViewPool(mRecycledViewPoolId, this);
+        }
+        mRecycledViewPoolId = poolId;
+        if (poolId != null) {
+            setRecycledViewPool(module.acquireRecycledViewPool(poolId));
+            module.setRecycledViewPoolSizes(poolId, this, mRecycledViewPoolSizes);
+        } else {
+            final RecycledViewPool pool = new RecycledViewPool();
+            setRecycledViewPool(pool);
+            updateRecycledViewPoolSizes(pool, new SparseIntArray(), mRecycledViewPoolSizes);
+        }
+    }
+
+    private @Nullable TraceRecorder mTraceRecorder;
+
+    /**
+     * Records the operations applied to this list to the given file, see {@link TraceRecorder}.
+     * A relative path is resolved against the cache directory of the app. Recording stops when
+     * the path is null.
+     */
+    public void setTraceFile(@Nullable String path) {
+        if (mTraceRecorder != null) {
+            if (path != null && TraceRecorder.resolveFile(getContext(), path).equals(mTraceRecorder.getFile())) {
+                return;
+            }
+            mTraceRecorder.close();
+            mTraceRecorder = null;
+        }
+        if (path != null) {
+            final File file = TraceRecorder.resolveFile(getContext(), path);
+            try {
+                mTraceRecorder = new TraceRecorder(file);
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to create the trace " + file, e);
+            }
+        }
+    }
+
+    /*package*/ @Nullable TraceRecorder getTraceRecorder() {
+        return mTraceRecorder;
+    }
+
+    /**
+     * Called when the view is dropped by its manager, to release the shared pool it holds and
+     * finish the trace being recorded.
+     */
+    /*package*/ void onDropViewInstance() {
+        setTraceFile(null);
+        if (mRecycledViewPoolId != null) {
+            getReactContext().getNativeModule(RNRecyclerviewListModule.class)
+                    .releaseRecycledViewPool(mRecycledViewPoolId, this);
+            mRecycledViewPoolId = null;
+            // Leave the shared pool to the other lists
+            setRecycledViewPool(new RecycledViewPool());
+        }
     }
 
     public void setItemAnimatorEnabled(boolean enabled) {
@@ -14,6 +14,7 @@ import android.view.View;
 
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.annotations.ReactProp;
@@ -35,6 +36,11 @@ public class RecyclerViewBackedScrollViewManager extends
     public static final int COMMAND_NOTIFY_DATASET_CHANGED = 3;
     public static final int COMMAND_SCROLL_TO_INDEX = 4;
     public static final int COMMAND_NOTIFY_ITEM_MOVED = 5;
+    public static final int COMMAND_APPLY_UPDATES = 6;
+    public static final int COMMAND_NOTIFY_DATASET_CHANGED_WITH_KEYS = 7;
+    public static final int COMMAND_SCROLL_TO_OFFSET = 8;
+    public static final int COMMAND_SET_ITEM_LAYOUTS = 9;
+    public static final int COMMAND_SET_ITEM_KEYS = 10;
     private static final String TAG = "RecyclerViewManager";
 
     @Override
@@ -47,10 +53,20 @@ public class RecyclerViewBackedScrollViewManager extends
         return new RecyclerViewBackedScrollView(reactContext);
     }
 
+    @Override
+    public void onDropViewInstance(RecyclerViewBackedScrollView view) {
+        super.onDropViewInstance(view);
+        view.onDropViewInstance();
+    }
+
     @Override
     public void addView(RecyclerViewBackedScrollView parent, View child, int index) {
         Assertions.assertCondition(child instanceof RecyclerViewItemView, "Views attached to RecyclerViewBackedScrollView must be RecyclerViewItemView views.");
         RecyclerViewItemView item = (RecyclerViewItemView) child;
+        TraceRecorder traceRecorder = parent.getTraceRecorder();
+        if (traceRecorder != null) {
+            traceRecorder.recordAddView(index, item.getItemIndex(), item.getItemId());
+        }
         parent.addViewToAdapter(item, index);
     }
 
@@ -66,11 +82,24 @@ public class RecyclerViewBackedScrollViewManager extends
 
     @Override
     public void removeViewAt(RecyclerViewBackedScrollView parent, int index) {
+        TraceRecorder traceRecorder = parent.getTraceRecorder();
+        if (traceRecorder != null) {
+            traceRecorder.recordRemoveView(index);
+        }
         parent.removeViewFromAdapter(index);
     }
 
     @ReactProp(name = "itemCount")
     public void setItemCount(RecyclerViewBackedScrollView parent, int itemCount) {
+        TraceRecorder traceRecorder = parent.getTraceRecorder();
+        if (traceRecorder != null) {
+            traceRecorder.recordItemCount(itemCount);
+        }
+        if (itemCount == parent.getItemCount()) {
+            // The prop follows the update commands, which already changed the count: refreshing
+            // the whole list would drop what is known about the items
+            return;
+        }
         parent.setItemCount(itemCount);
         parent.getAdapter().notifyDataSetChanged();
     }
@@ -80,20 +109,122 @@ public class RecyclerViewBackedScrollViewManager extends
         parent.setInverted(inverted);
     }
 
+    @ReactProp(name = "horizontal", defaultBoolean = false)
+    public void setHorizontal(RecyclerViewBackedScrollView parent, boolean horizontal) {
+        parent.setHorizontal(horizontal);
+    }
+
+    @ReactProp(name = "layoutMode")
+    public void setLayoutMode(RecyclerViewBackedScrollView parent, @Nullable String layoutMode) {
+        parent.setLayoutMode(
+                layoutMode != null ? layoutMode : RecyclerViewBackedScrollView.LAYOUT_MODE_LINEAR,
+                parent.getSpanCount());
+    }
+
+    @ReactProp(name = "spanCount", defaultInt = 1)
+    public void setSpanCount(RecyclerViewBackedScrollView parent, int spanCount) {
+        parent.setLayoutMode(parent.getLayoutMode(), spanCount);
+    }
+
+    @ReactProp(name = "recycledViewPoolSizes")
+    public void setRecycledViewPoolSizes(RecyclerViewBackedScrollView parent, @Nullable ReadableMap poolSizes) {
+        parent.setRecycledViewPoolSizes(poolSizes);
+    }
+
+    @ReactProp(name = "recycledViewPoolId")
+    public void setRecycledViewPoolId(RecyclerViewBackedScrollView parent, @Nullable String poolId) {
+        parent.setRecycledViewPoolId(poolId);
+    }
+
     @ReactProp(name = "itemAnimatorEnabled", defaultBoolean = true)
     public void setItemAnimatorEnabled(RecyclerViewBackedScrollView parent, boolean enabled) {
         parent.setItemAnimatorEnabled(enabled);
     }
 
+    @ReactProp(name = "estimatedItemHeight", defaultFloat = -1f)
+    public void setEstimatedItemHeight(RecyclerViewBackedScrollView parent, float estimatedItemHeight) {
+        parent.setEstimatedItemHeight(estimatedItemHeight >= 0 ? Math.round(PixelUtil.toPixelFromDIP(estimatedItemHeight)) : -1);
+    }
+
+    @ReactProp(name = "itemHeight", defaultFloat = -1f)
+    public void setItemHeight(RecyclerViewBackedScrollView parent, float itemHeight) {
+        parent.setItemHeight(itemHeight >= 0 ? Math.round(PixelUtil.toPixelFromDIP(itemHeight)) : -1);
+    }
+
+    @ReactProp(name = "windowSize", defaultInt = 30)
+    public void setWindowSize(RecyclerViewBackedScrollView parent, int windowSize) {
+        parent.setWindowSize(windowSize);
+    }
+
+    @ReactProp(name = "scrollEventThrottle", defaultInt = 0)
+    public void setScrollEventThrottle(RecyclerViewBackedScrollView parent, int scrollEventThrottle) {
+        parent.setScrollEventThrottle(scrollEventThrottle);
+    }
+
+    @ReactProp(name = "performanceMetricsEnabled", defaultBoolean = false)
+    public void setPerformanceMetricsEnabled(RecyclerViewBackedScrollView parent, boolean enabled) {
+        parent.setPerformanceMetricsEnabled(enabled);
+    }
+
+    @ReactProp(name = "performanceReportInterval", defaultInt = 0)
+    public void setPerformanceReportInterval(RecyclerViewBackedScrollView parent, int interval) {
+        parent.setPerformanceReportInterval(interval);
+    }
+
+    @ReactProp(name = "nativeSeparator")
+    public void setNativeSeparator(RecyclerViewBackedScrollView parent, @Nullable ReadableMap separator) {
+        parent.setNativeSeparator(separator);
+    }
+
+    @ReactProp(name = "stickyHeaderIndices")
+    public void setStickyHeaderIndices(RecyclerViewBackedScrollView parent, @Nullable ReadableArray stickyHeaderIndices) {
+        parent.setStickyHeaderIndices(stickyHeaderIndices);
+    }
+
+    @ReactProp(name = "contentSizeChangeEnabled", defaultBoolean = false)
+    public void setContentSizeChangeEnabled(RecyclerViewBackedScrollView parent, boolean enabled) {
+        parent.setContentSizeChangeEnabled(enabled);
+    }
+
+    @ReactProp(name = "endReachedThreshold", defaultFloat = -1f)
+    public void setEndReachedThreshold(RecyclerViewBackedScrollView parent, float threshold) {
+        parent.setEndReachedThreshold(threshold);
+    }
+
+    @ReactProp(name = "startReachedThreshold", defaultFloat = -1f)
+    public void setStartReachedThreshold(RecyclerViewBackedScrollView parent, float threshold) {
+        parent.setStartReachedThreshold(threshold);
+    }
+
+    @ReactProp(name = "reachedThresholdUnit")
+    public void setReachedThresholdUnit(RecyclerViewBackedScrollView parent, @Nullable String unit) {
+        parent.setReachedThresholdUnit(unit);
+    }
+
+    @ReactProp(name = "traceFile")
+    public void setTraceFile(RecyclerViewBackedScrollView parent, @Nullable String traceFile) {
+        parent.setTraceFile(traceFile);
+    }
+
+    @ReactProp(name = "prefetchBudget", defaultInt = -1)
+    public void setPrefetchBudget(RecyclerViewBackedScrollView parent, int prefetchBudget) {
+        parent.setPrefetchBudget(prefetchBudget);
+    }
+
     @Override
     public Map<String, Integer> getCommandsMap() {
-        return MapBuilder.of(
-            "notifyItemRangeInserted", COMMAND_NOTIFY_ITEM_RANGE_INSERTED,
-            "notifyItemRangeRemoved", COMMAND_NOTIFY_ITEM_RANGE_REMOVED,
-            "notifyItemMoved", COMMAND_NOTIFY_ITEM_MOVED,
-            "notifyDataSetChanged", COMMAND_NOTIFY_DATASET_CHANGED,
-            "scrollToIndex", COMMAND_SCROLL_TO_INDEX
-        );
+        return MapBuilder.<String, Integer>builder()
+            .put("notifyItemRangeInserted", COMMAND_NOTIFY_ITEM_RANGE_INSERTED)
+            .put("notifyItemRangeRemoved", COMMAND_NOTIFY_ITEM_RANGE_REMOVED)
+            .put("notifyItemMoved", COMMAND_NOTIFY_ITEM_MOVED)
+            .put("notifyDataSetChanged", COMMAND_NOTIFY_DATASET_CHANGED)
+            .put("notifyDataSetChangedWithKeys", COMMAND_NOTIFY_DATASET_CHANGED_WITH_KEYS)
+            .put("scrollToIndex", COMMAND_SCROLL_TO_INDEX)
+            .put("scrollToOffset", COMMAND_SCROLL_TO_OFFSET)
+            .put("setItemLayouts", COMMAND_SET_ITEM_LAYOUTS)
+            .put("setItemKeys", COMMAND_SET_ITEM_KEYS)
+            .put("applyUpdates", COMMAND_APPLY_UPDATES)
+            .build();
     }
 
     @Override
@@ -103,6 +234,10 @@ public class RecyclerViewBackedScrollViewManager extends
             @Nullable ReadableArray args) {
         Assertions.assertNotNull(parent);
         Assertions.assertNotNull(args);
+        TraceRecorder traceRecorder = parent.getTraceRecorder();
+        if (traceRecorder != null) {
+            traceRecorder.recordCommand(commandType, args);
+        }
         switch (commandType) {
             case COMMAND_NOTIFY_ITEM_RANGE_INSERTED: {
                 final int position = args.getInt(0);
@@ -135,6 +270,22 @@ public class RecyclerViewBackedScrollViewManager extends
                 return;
             }
 
+            case COMMAND_APPLY_UPDATES: {
+                final ReadableArray encodedOps = args.getArray(0);
+                final int[] ops = new int[encodedOps.size()];
+                for (int i = 0; i < ops.length; i++) {
+                    ops[i] = encodedOps.getInt(i);
+                }
+                RecyclerViewBackedScrollView.ReactListAdapter adapter = (RecyclerViewBackedScrollView.ReactListAdapter) parent.getAdapter();
+                adapter.applyUpdates(ops);
+                return;
+            }
+
+            case COMMAND_NOTIFY_DATASET_CHANGED_WITH_KEYS: {
+                parent.notifyDataSetChangedWithKeys(args.getArray(0), args.getArray(1));
+                return;
+            }
+
             case COMMAND_NOTIFY_DATASET_CHANGED: {
                 final int itemCount = args.getInt(0);
                 RecyclerViewBackedScrollView.ReactListAdapter adapter = (RecyclerViewBackedScrollView.ReactListAdapter) parent.getAdapter();
@@ -159,6 +310,37 @@ public class RecyclerViewBackedScrollViewManager extends
                 return;
             }
 
+            case COMMAND_SCROLL_TO_OFFSET: {
+                boolean animated = args.getBoolean(0);
+                int offset = Math.round(PixelUtil.toPixelFromDIP(args.getDouble(1)));
+                parent.scrollToOffset(offset, animated);
+                return;
+            }
+
+            case COMMAND_SET_ITEM_LAYOUTS: {
+                final ReadableArray encodedRuns = args.getArray(0);
+                final int[] runs = new int[encodedRuns.size()];
+                for (int i = 0; i + 1 < runs.length; i += 2) {
+                    runs[i] = encodedRuns.getInt(i);
+                    final double height = encodedRuns.getDouble(i + 1);
+                    runs[i + 1] = height >= 0 ? Math.round(PixelUtil.toPixelFromDIP(height)) : -1;
+                }
+                // The runs start from the first item, or from the given position when only the
+                // items inserted or changed by an update are declared
+                parent.setItemLayouts(args.size() > 1 ? args.getInt(1) : 0, runs);
+                return;
+            }
+
+            case COMMAND_SET_ITEM_KEYS: {
+                final ReadableArray keys = args.getArray(0);
+                final long[] hashes = new long[keys.size()];
+                for (int i = 0; i < hashes.length; i++) {
+                    hashes[i] = RecyclerViewItemView.hashKey(keys.getString(i));
+                }
+                parent.setItemKeys(args.size() > 1 ? args.getInt(1) : 0, hashes);
+                return;
+            }
+
             default:
                 throw new IllegalArgumentException(String.format(
                         "Unsupported command %d received by %s.",
@@ -175,6 +357,10 @@ public class RecyclerViewBackedScrollViewManager extends
                 .put(ScrollEventType.SCROLL.getJSEventName(), MapBuilder.of("registrationName", "onScroll"))
                 .put(ContentSizeChangeEvent.EVENT_NAME, MapBuilder.of("registrationName", "onContentSizeChange"))
                 .put(VisibleItemsChangeEvent.EVENT_NAME, MapBuilder.of("registrationName", "onVisibleItemsChange"))
+                .put(PrefetchEvent.EVENT_NAME, MapBuilder.of("registrationName", "onPrefetch"))
+                .put(PerformanceReportEvent.EVENT_NAME, MapBuilder.of("registrationName", "onPerformanceReport"))
+                .put(EdgeReachedEvent.END_REACHED, MapBuilder.of("registrationName", "onEndReached"))
+                .put(EdgeReachedEvent.START_REACHED, MapBuilder.of("registrationName", "onStartReached"))
                 .build();
     }
 }
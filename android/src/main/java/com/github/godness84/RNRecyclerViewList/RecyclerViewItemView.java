@@ -1,14 +1,35 @@
 package com.github.godness84.RNRecyclerViewList;
 
 import android.content.Context;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
 import android.util.Log;
 import android.view.ViewGroup;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class RecyclerViewItemView extends ViewGroup {
     private static final String TAG = "RecyclerViewItem";
 
+    /**
+     * View type of the items without an explicit type, and of the positions not rendered yet.
+     */
+    /*package*/ static final int DEFAULT_VIEW_TYPE = 0;
+
+    /**
+     * Maps the item types set from JS to view type ids. It's shared by all the lists, so that the
+     * same type always has the same id. Only accessed from the UI thread.
+     */
+    private static final Map<String, Integer> sViewTypes = new HashMap<>();
+
     private int mItemIndex;
     private boolean mItemIndexInitialized;
+    private long mItemId = RecyclerView.NO_ID;
+    private int mViewType = DEFAULT_VIEW_TYPE;
+    private boolean mFullSpan;
+    private @Nullable RecyclerViewBackedScrollView.ReactListAdapter mAdapter;
+    private int mViewIndex = -1;
 
     public RecyclerViewItemView(Context context) {
         super(context);
@@ -19,12 +40,24 @@ public class RecyclerViewItemView extends ViewGroup {
         // noop
     }
 
+    /**
+     * Sets the position of the item rendered by this view. A negative index means the view is not
+     * assigned to any position: in recycling mode, JS parks the rows it keeps mounted for reuse.
+     */
     public void setItemIndex(int itemIndex) {
         if (mItemIndexInitialized  && this.mItemIndex != itemIndex){
+            final int oldItemIndex = this.mItemIndex;
             this.mItemIndex = itemIndex;
-            if (getParent() != null) {
-                ((RecyclerViewBackedScrollView.RecyclableWrapperViewGroup) getParent()).getAdapter().notifyItemChanged(mItemIndex);
-                ((RecyclerViewBackedScrollView.RecyclableWrapperViewGroup) getParent()).getAdapter().notifyItemChanged(itemIndex);
+            if (mAdapter != null) {
+                // The row may be reassigned while it is not bound to any holder, so both positions
+                // are notified through the adapter it belongs to rather than its wrapper's.
+                mAdapter.onItemIndexChanged(this, oldItemIndex, itemIndex);
+                if (oldItemIndex >= 0) {
+                    mAdapter.notifyItemChanged(oldItemIndex);
+                }
+                if (itemIndex >= 0) {
+                    mAdapter.notifyItemChanged(itemIndex);
+                }
             }
         } else {
             this.mItemIndex = itemIndex;
@@ -36,4 +69,108 @@ public class RecyclerViewItemView extends ViewGroup {
     public int getItemIndex() {
         return mItemIndex;
     }
+
+    public void setItemKey(@Nullable String itemKey) {
+        setItemId(itemKey != null ? hashKey(itemKey) : RecyclerView.NO_ID);
+    }
+
+    /**
+     * Sets the id of the item shown by this row, i.e. its key hashed with {@link #hashKey}.
+     */
+    /*package*/ void setItemId(long itemId) {
+        if (itemId != mItemId) {
+            mItemId = itemId;
+            if (mAdapter != null) {
+                mAdapter.onItemIdChanged(this, itemId);
+            }
+            // A recycled row keeping its position now shows another item: rebind it so that its
+            // holder is measured and laid out again
+            if (mAdapter != null && mItemIndex >= 0 && mAdapter.getViewByItemIndex(mItemIndex) == this) {
+                mAdapter.notifyItemChanged(mItemIndex);
+            }
+        }
+    }
+
+    /**
+     * Id of the item shown by this row, derived from the key returned by {@code DataSource.getKey}.
+     * The adapter takes the stable ids of the items from the keys sent for every item instead.
+     */
+    public long getItemId() {
+        return mItemId;
+    }
+
+    public void setItemType(@Nullable String itemType) {
+        final int viewType = getViewTypeId(itemType);
+        if (viewType != mViewType) {
+            mViewType = viewType;
+            if (mAdapter != null && mAdapter.getViewByItemIndex(mItemIndex) == this) {
+                mAdapter.notifyItemChanged(mItemIndex);
+            }
+        }
+    }
+
+    /**
+     * View type of this row, used by the adapter to bind it to a holder of the same type.
+     */
+    public int getViewType() {
+        return mViewType;
+    }
+
+    /**
+     * Makes the row take all the columns of a grid, e.g. for the row carrying the header or the
+     * footer of the list.
+     */
+    public void setFullSpan(boolean fullSpan) {
+        if (fullSpan != mFullSpan) {
+            mFullSpan = fullSpan;
+            if (mAdapter != null && mItemIndex >= 0 && mAdapter.getViewByItemIndex(mItemIndex) == this) {
+                mAdapter.notifyItemChanged(mItemIndex);
+            }
+        }
+    }
+
+    public boolean isFullSpan() {
+        return mFullSpan;
+    }
+
+    /*package*/ static int getViewTypeId(@Nullable String itemType) {
+        if (itemType == null) {
+            return DEFAULT_VIEW_TYPE;
+        }
+        Integer viewType = sViewTypes.get(itemType);
+        if (viewType == null) {
+            viewType = sViewTypes.size() + 1;
+            sViewTypes.put(itemType, viewType);
+        }
+        return viewType;
+    }
+
+    /*package*/ void setAdapter(@Nullable RecyclerViewBackedScrollView.ReactListAdapter adapter) {
+        mAdapter = adapter;
+    }
+
+    /**
+     * Index of this view among the views held by the adapter, kept by the adapter only when it
+     * needs it, see {@link RecyclerViewBackedScrollView.ReactListAdapter#getViewIndex}.
+     */
+    /*package*/ int getViewIndex() {
+        return mViewIndex;
+    }
+
+    /*package*/ void setViewIndex(int viewIndex) {
+        mViewIndex = viewIndex;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the key. The sign bit is cleared so that ids never collide with
+     * {@link RecyclerView#NO_ID} or with the negative ids the adapter uses for rows not rendered yet.
+     */
+    /*package*/ static long hashKey(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash & Long.MAX_VALUE;
+    }
 }
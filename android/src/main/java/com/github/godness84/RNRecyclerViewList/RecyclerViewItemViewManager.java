@@ -1,5 +1,7 @@
 package com.github.godness84.RNRecyclerViewList;
 
+import javax.annotation.Nullable;
+
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.ViewGroupManager;
 import com.facebook.react.uimanager.annotations.ReactProp;
@@ -21,4 +23,19 @@ public class RecyclerViewItemViewManager extends ViewGroupManager<RecyclerViewIt
     public void setItemIndex(RecyclerViewItemView view, int itemIndex) {
         view.setItemIndex(itemIndex);
     }
+
+    @ReactProp(name = "itemKey")
+    public void setItemKey(RecyclerViewItemView view, @Nullable String itemKey) {
+        view.setItemKey(itemKey);
+    }
+
+    @ReactProp(name = "itemType")
+    public void setItemType(RecyclerViewItemView view, @Nullable String itemType) {
+        view.setItemType(itemType);
+    }
+
+    @ReactProp(name = "fullSpan", defaultBoolean = false)
+    public void setFullSpan(RecyclerViewItemView view, boolean fullSpan) {
+        view.setFullSpan(fullSpan);
+    }
 }
@@ -0,0 +1,114 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * Draws a separator between the rows of {@link RecyclerViewBackedScrollView}, in the space the
+ * decoration reserves next to each row. It replaces an {@code ItemSeparatorComponent} rendered in
+ * every row, and the view and the layout work it costs.
+ */
+/*package*/ class SeparatorItemDecoration extends RecyclerView.ItemDecoration {
+
+    private static final int SIDE_NONE = 0;
+    private static final int SIDE_START = 1;
+    private static final int SIDE_END = 2;
+
+    private final Paint mPaint = new Paint();
+    private int mThickness;
+    private int mInsetStart;
+    private int mInsetEnd;
+    private boolean mSkipLast = true;
+    private boolean mHonorInverted = true;
+
+    /**
+     * @param thickness   size of the separator along the scroll axis, in pixels.
+     * @param insetStart  space left empty before the separator on the other axis, in pixels.
+     * @param insetEnd    space left empty after the separator on the other axis, in pixels.
+     * @param skipLast    whether there is no separator after the last row.
+     * @param honorInverted whether, in inverted lists, separators follow the rows as they are laid
+     *                    out on screen: below every row but the bottom one, like
+     *                    {@code ItemSeparatorComponent}. Otherwise they follow the item order.
+     */
+    public void setStyle(int color, int thickness, int insetStart, int insetEnd, boolean skipLast, boolean honorInverted) {
+        mPaint.setColor(color);
+        mThickness = thickness;
+        mInsetStart = insetStart;
+        mInsetEnd = insetEnd;
+        mSkipLast = skipLast;
+        mHonorInverted = honorInverted;
+    }
+
+    public int getThickness() {
+        return mThickness;
+    }
+
+    /**
+     * @return whether the first item has no separator, which happens in inverted lists when the
+     * separator below the bottom row is skipped.
+     */
+    public boolean skipsFirst(boolean inverted) {
+        return mSkipLast && inverted && mHonorInverted;
+    }
+
+    /**
+     * @return whether the last item has no separator.
+     */
+    public boolean skipsLast(boolean inverted) {
+        return mSkipLast && !(inverted && mHonorInverted);
+    }
+
+    private int getSide(RecyclerViewBackedScrollView parent, int position, int itemCount) {
+        if (position == RecyclerView.NO_POSITION) {
+            return SIDE_NONE;
+        }
+        if (parent.isInverted() && mHonorInverted) {
+            // The row at the bottom (the right when horizontal) is the first one
+            return mSkipLast && position == 0 ? SIDE_NONE : SIDE_END;
+        }
+        if (mSkipLast && position == itemCount - 1) {
+            return SIDE_NONE;
+        }
+        return parent.isInverted() ? SIDE_START : SIDE_END;
+    }
+
+    @Override
+    public void getItemOffsets(Rect outRect, View view, RecyclerView parent, RecyclerView.State state) {
+        final RecyclerViewBackedScrollView scrollView = (RecyclerViewBackedScrollView) parent;
+        final int side = getSide(scrollView, parent.getChildAdapterPosition(view), state.getItemCount());
+        final boolean horizontal = scrollView.isHorizontal();
+        outRect.set(
+                horizontal && side == SIDE_START ? mThickness : 0,
+                !horizontal && side == SIDE_START ? mThickness : 0,
+                horizontal && side == SIDE_END ? mThickness : 0,
+                !horizontal && side == SIDE_END ? mThickness : 0);
+    }
+
+    @Override
+    public void onDraw(Canvas c, RecyclerView parent, RecyclerView.State state) {
+        final RecyclerViewBackedScrollView scrollView = (RecyclerViewBackedScrollView) parent;
+        final boolean horizontal = scrollView.isHorizontal();
+        final int itemCount = state.getItemCount();
+
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            final View child = parent.getChildAt(i);
+            final int side = getSide(scrollView, parent.getChildAdapterPosition(child), itemCount);
+            if (side == SIDE_NONE) {
+                continue;
+            }
+
+            final int left = child.getLeft() + Math.round(child.getTranslationX());
+            final int top = child.getTop() + Math.round(child.getTranslationY());
+            if (horizontal) {
+                final int start = side == SIDE_END ? left + child.getWidth() : left - mThickness;
+                c.drawRect(start, top + mInsetStart, start + mThickness, top + child.getHeight() - mInsetEnd, mPaint);
+            } else {
+                final int start = side == SIDE_END ? top + child.getHeight() : top - mThickness;
+                c.drawRect(left + mInsetStart, start, left + child.getWidth() - mInsetEnd, start + mThickness, mPaint);
+            }
+        }
+    }
+}
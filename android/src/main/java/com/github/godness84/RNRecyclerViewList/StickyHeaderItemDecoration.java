@@ -0,0 +1,124 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.graphics.Canvas;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * Pins the header of the current section to the start edge of {@link RecyclerViewBackedScrollView}
+ * (the bottom edge when the list is inverted). The header is the last sticky item before the first
+ * visible one: its row is drawn over the other rows, and pushed away by the next sticky item when
+ * it reaches the header.
+ * <p>
+ * The pinned header is only drawn, at full frame rate and without any JS involvement: touches go
+ * to the rows beneath it.
+ */
+/*package*/ class StickyHeaderItemDecoration extends RecyclerView.ItemDecoration {
+
+    private int[] mStickyIndices = new int[0];
+
+    /**
+     * @param stickyIndices positions of the sticky items, in any order.
+     */
+    public void setStickyIndices(int[] stickyIndices) {
+        mStickyIndices = Arrays.copyOf(stickyIndices, stickyIndices.length);
+        Arrays.sort(mStickyIndices);
+    }
+
+    public boolean isEmpty() {
+        return mStickyIndices.length == 0;
+    }
+
+    /**
+     * @return the position of the last sticky item at or before the given position, or
+     * {@link RecyclerView#NO_POSITION}.
+     */
+    /*package*/ int findStickyIndex(int position) {
+        int index = Arrays.binarySearch(mStickyIndices, position);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index >= 0 ? mStickyIndices[index] : RecyclerView.NO_POSITION;
+    }
+
+    @Override
+    public void onDrawOver(Canvas c, RecyclerView parent, RecyclerView.State state) {
+        final RecyclerViewBackedScrollView scrollView = (RecyclerViewBackedScrollView) parent;
+        final int firstIndex = scrollView.findFirstVisibleItemPosition();
+        if (firstIndex == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        final int headerIndex = findStickyIndex(firstIndex);
+        if (headerIndex == RecyclerView.NO_POSITION) {
+            return;
+        }
+        final View header = scrollView.getViewByItemIndex(headerIndex);
+        if (header == null) {
+            // JS has not rendered the header
+            return;
+        }
+
+        final int headerDistance = getDistanceFromStart(scrollView, headerIndex);
+        if (headerDistance >= 0) {
+            // The header is in its own place
+            return;
+        }
+
+        final boolean horizontal = scrollView.isHorizontal();
+        final int headerSize = horizontal ? header.getWidth() : header.getHeight();
+
+        // The next header pushes the pinned one away when it reaches it
+        int position = 0;
+        final int next = Arrays.binarySearch(mStickyIndices, headerIndex) + 1;
+        if (next > 0 && next < mStickyIndices.length) {
+            final int nextDistance = getDistanceFromStart(scrollView, mStickyIndices[next]);
+            if (nextDistance != Integer.MIN_VALUE) {
+                position = Math.min(0, nextDistance - headerSize);
+            }
+        }
+
+        final float translation;
+        if (horizontal) {
+            translation = scrollView.isInverted()
+                    ? parent.getWidth() - parent.getPaddingRight() - position - headerSize
+                    : parent.getPaddingLeft() + position;
+        } else {
+            translation = scrollView.isInverted()
+                    ? parent.getHeight() - parent.getPaddingBottom() - position - headerSize
+                    : parent.getPaddingTop() + position;
+        }
+
+        c.save();
+        if (horizontal) {
+            c.translate(translation, parent.getPaddingTop());
+        } else {
+            c.translate(parent.getPaddingLeft(), translation);
+        }
+        header.draw(c);
+        c.restore();
+    }
+
+    /**
+     * @return the distance of the row at the given position from the start edge of the list, or
+     * {@link Integer#MIN_VALUE} if the row is not laid out.
+     */
+    private static int getDistanceFromStart(RecyclerViewBackedScrollView scrollView, int position) {
+        final RecyclerView.ViewHolder holder = scrollView.findViewHolderForAdapterPosition(position);
+        if (holder == null) {
+            return Integer.MIN_VALUE;
+        }
+
+        final View row = holder.itemView;
+        if (scrollView.isHorizontal()) {
+            return scrollView.isInverted()
+                    ? scrollView.getWidth() - scrollView.getPaddingRight() - row.getRight()
+                    : row.getLeft() - scrollView.getPaddingLeft();
+        }
+        return scrollView.isInverted()
+                ? scrollView.getHeight() - scrollView.getPaddingBottom() - row.getBottom()
+                : row.getTop() - scrollView.getPaddingTop();
+    }
+}
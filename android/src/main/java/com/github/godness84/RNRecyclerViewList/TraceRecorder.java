@@ -0,0 +1,240 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.facebook.react.bridge.ReadableArray;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes the operations that drive a list to a compact binary trace, so that they can be played
+ * back with {@code TraceReplayer}, in the unit tests: item count changes, commands, views added
+ * and removed by the manager, and item index and key changes of the rows.
+ * <p>
+ * The trace starts with {@link #MAGIC} and {@link #VERSION}, followed by one record per operation:
+ * the operation code, the microseconds elapsed since the previous record and the arguments of the
+ * operation, all as varints except the item ids, which are 64-bit. Command arguments are tagged values, see {@link #writeValue}.
+ * <p>
+ * Recording is meant for debugging: if the trace can't be written, it is logged and recording
+ * stops, without affecting the list.
+ */
+/*package*/ class TraceRecorder implements Closeable {
+    private static final String TAG = "TraceRecorder";
+
+    /*package*/ static final int MAGIC = 0x524e5254; // "RNRT"
+    /*package*/ static final int VERSION = 2;
+
+    /*package*/ static final int OP_ITEM_COUNT = 1;
+    /*package*/ static final int OP_COMMAND = 2;
+    /*package*/ static final int OP_ADD_VIEW = 3;
+    /*package*/ static final int OP_REMOVE_VIEW = 4;
+    /*package*/ static final int OP_ITEM_INDEX = 5;
+    /*package*/ static final int OP_ITEM_ID = 6;
+
+    /*package*/ static final int VALUE_NULL = 0;
+    /*package*/ static final int VALUE_FALSE = 1;
+    /*package*/ static final int VALUE_TRUE = 2;
+    /*package*/ static final int VALUE_INT = 3;
+    /*package*/ static final int VALUE_DOUBLE = 4;
+    /*package*/ static final int VALUE_STRING = 5;
+    /*package*/ static final int VALUE_ARRAY = 6;
+
+    private final File mFile;
+    private DataOutputStream mOut;
+    private long mLastRecordTimeNanos;
+
+    public TraceRecorder(File file) throws IOException {
+        mFile = file;
+        mOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        mOut.writeInt(MAGIC);
+        writeVarInt(VERSION);
+        mLastRecordTimeNanos = System.nanoTime();
+    }
+
+    public File getFile() {
+        return mFile;
+    }
+
+    /**
+     * Resolves the path of a trace, relative to the cache directory of the app if it is not
+     * absolute.
+     */
+    public static File resolveFile(Context context, String path) {
+        final File file = new File(path);
+        return file.isAbsolute() ? file : new File(context.getCacheDir(), path);
+    }
+
+    public void recordItemCount(int itemCount) {
+        if (beginRecord(OP_ITEM_COUNT)) {
+            try {
+                writeVarInt(itemCount);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    public void recordCommand(int commandType, ReadableArray args) {
+        if (beginRecord(OP_COMMAND)) {
+            try {
+                writeVarInt(commandType);
+                writeArray(args);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * @param index the index of the view among the children of the list.
+     * @param itemIndex the item index of the view when it is added.
+     * @param itemId the id of the item of the view when it is added.
+     */
+    public void recordAddView(int index, int itemIndex, long itemId) {
+        if (beginRecord(OP_ADD_VIEW)) {
+            try {
+                writeVarInt(index);
+                writeVarInt(zigZag(itemIndex));
+                mOut.writeLong(itemId);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    public void recordRemoveView(int index) {
+        if (beginRecord(OP_REMOVE_VIEW)) {
+            try {
+                writeVarInt(index);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * @param index the index of the view among the children of the list.
+     * @param itemIndex the new item index of the view; negative if it is parked.
+     */
+    public void recordItemIndex(int index, int itemIndex) {
+        if (beginRecord(OP_ITEM_INDEX)) {
+            try {
+                writeVarInt(index);
+                writeVarInt(zigZag(itemIndex));
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * @param index the index of the view among the children of the list.
+     * @param itemId the id of the new item of the view, hashed from its key.
+     */
+    public void recordItemId(int index, long itemId) {
+        if (beginRecord(OP_ITEM_ID)) {
+            try {
+                writeVarInt(index);
+                mOut.writeLong(itemId);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (mOut != null) {
+            try {
+                mOut.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to close the trace " + mFile, e);
+            }
+            mOut = null;
+        }
+    }
+
+    private boolean beginRecord(int op) {
+        if (mOut == null) {
+            return false;
+        }
+        final long now = System.nanoTime();
+        try {
+            mOut.writeByte(op);
+            writeVarInt((int) Math.min(Integer.MAX_VALUE, (now - mLastRecordTimeNanos) / 1000));
+            mLastRecordTimeNanos = now;
+            return true;
+        } catch (IOException e) {
+            fail(e);
+            return false;
+        }
+    }
+
+    private void fail(IOException e) {
+        Log.w(TAG, "Failed to write the trace " + mFile + ", recording stopped", e);
+        close();
+    }
+
+    private void writeArray(ReadableArray array) throws IOException {
+        writeVarInt(array.size());
+        for (int i = 0; i < array.size(); i++) {
+            writeValue(array, i);
+        }
+    }
+
+    /**
+     * Writes the value at the given index as a {@code VALUE_*} tag followed by its payload.
+     * Numbers without a fractional part are written as zigzag varints. Maps are never passed to
+     * the commands of the list, and are written as null.
+     */
+    private void writeValue(ReadableArray array, int index) throws IOException {
+        switch (array.getType(index)) {
+            case Boolean:
+                mOut.writeByte(array.getBoolean(index) ? VALUE_TRUE : VALUE_FALSE);
+                break;
+            case Number: {
+                final double value = array.getDouble(index);
+                if (value == (int) value) {
+                    mOut.writeByte(VALUE_INT);
+                    writeVarInt(zigZag((int) value));
+                } else {
+                    mOut.writeByte(VALUE_DOUBLE);
+                    mOut.writeDouble(value);
+                }
+                break;
+            }
+            case String: {
+                final byte[] bytes = array.getString(index).getBytes("UTF-8");
+                mOut.writeByte(VALUE_STRING);
+                writeVarInt(bytes.length);
+                mOut.write(bytes);
+                break;
+            }
+            case Array:
+                mOut.writeByte(VALUE_ARRAY);
+                writeArray(array.getArray(index));
+                break;
+            default:
+                mOut.writeByte(VALUE_NULL);
+                break;
+        }
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            mOut.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        mOut.writeByte(value);
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+}
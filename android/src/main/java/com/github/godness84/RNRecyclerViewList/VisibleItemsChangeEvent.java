@@ -1,21 +1,62 @@
 package com.github.godness84.RNRecyclerViewList;
 
+import android.support.v4.util.Pools;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.Event;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 
+/**
+ * Event dispatched by {@link RecyclerViewBackedScrollView} when the range of visible items changes.
+ * Instances are pooled, and pending events of the same view are coalesced so that JS only receives
+ * the latest range.
+ */
 public class VisibleItemsChangeEvent extends Event<VisibleItemsChangeEvent> {
 
+    private static final Pools.SynchronizedPool<VisibleItemsChangeEvent> EVENTS_POOL =
+            new Pools.SynchronizedPool<>(3);
+
     public static final String EVENT_NAME = "visibleItemsChange";
 
-    private final int mFirstIndex;
-    private final int mLastIndex;
+    private int mFirstIndex;
+    private int mLastIndex;
+    private int mRenderFirstIndex;
+    private int mRenderLastIndex;
+
+    public static VisibleItemsChangeEvent obtain(
+            int viewTag,
+            int firstIndex,
+            int lastIndex,
+            int renderFirstIndex,
+            int renderLastIndex) {
+        VisibleItemsChangeEvent event = EVENTS_POOL.acquire();
+        if (event == null) {
+            event = new VisibleItemsChangeEvent();
+        }
+        event.init(viewTag, firstIndex, lastIndex, renderFirstIndex, renderLastIndex);
+        return event;
+    }
+
+    private VisibleItemsChangeEvent() {
+    }
 
-    public VisibleItemsChangeEvent(int viewTag, long timestampMs, int firstIndex, int lastIndex) {
-        super(viewTag);
+    private void init(
+            int viewTag,
+            int firstIndex,
+            int lastIndex,
+            int renderFirstIndex,
+            int renderLastIndex) {
+        super.init(viewTag);
         mFirstIndex = firstIndex;
         mLastIndex = lastIndex;
+        mRenderFirstIndex = renderFirstIndex;
+        mRenderLastIndex = renderLastIndex;
+    }
+
+    @Override
+    public void onDispose() {
+        EVENTS_POOL.release(this);
     }
 
     @Override
@@ -23,11 +64,18 @@ public class VisibleItemsChangeEvent extends Event<VisibleItemsChangeEvent> {
         return EVENT_NAME;
     }
 
+    @Override
+    public boolean canCoalesce() {
+        return true;
+    }
+
     @Override
     public void dispatch(RCTEventEmitter rctEventEmitter) {
         WritableMap data = Arguments.createMap();
         data.putInt("firstIndex", mFirstIndex);
         data.putInt("lastIndex", mLastIndex);
+        data.putInt("renderFirstIndex", mRenderFirstIndex);
+        data.putInt("renderLastIndex", mRenderLastIndex);
         rctEventEmitter.receiveEvent(getViewTag(), EVENT_NAME, data);
     }
 }
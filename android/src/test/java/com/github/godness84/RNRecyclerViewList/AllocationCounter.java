@@ -0,0 +1,108 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Counts the bytes allocated by the current thread, with the {@code ThreadMXBean} of HotSpot.
+ * <p>
+ * The bean is reached by reflection: the unit tests are compiled against the Android SDK, which
+ * has no {@code java.lang.management}. Reading the counter allocates by itself (the boxed result,
+ * at least), always the same amount, which is measured once and subtracted from every
+ * measurement. Tests are skipped on JVMs that can't count allocations.
+ * <p>
+ * Work that is allowed to allocate can be left out of a measurement with {@link #pause} and
+ * {@link #resume}; the bytes it allocates are counted apart, see {@link #getExcludedBytes}.
+ */
+/*package*/ class AllocationCounter {
+
+    private final Object mThreadMXBean;
+    private final Method mGetThreadAllocatedBytes;
+    private final Object[] mThreadId;
+    private long mReadOverhead = Long.MAX_VALUE;
+    private boolean mRunning;
+    private boolean mPaused;
+    private long mStart;
+    private long mCounted;
+    private long mPauseStart;
+    private long mExcluded;
+
+    public AllocationCounter() throws Exception {
+        mThreadMXBean = Class.forName("java.lang.management.ManagementFactory")
+                .getMethod("getThreadMXBean")
+                .invoke(null);
+        final Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+        assumeTrue(beanClass.isInstance(mThreadMXBean)
+                && (Boolean) beanClass.getMethod("isThreadAllocatedMemorySupported").invoke(mThreadMXBean));
+        beanClass.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(mThreadMXBean, true);
+        mGetThreadAllocatedBytes = beanClass.getMethod("getThreadAllocatedBytes", long.class);
+        mThreadId = new Object[] {Thread.currentThread().getId()};
+
+        // The first reflective calls are slower and allocate more, until the JVM generates an
+        // accessor for the method: only the last reads are used to measure the overhead
+        for (int i = 0; i < 100; i++) {
+            final long before = read();
+            final long after = read();
+            if (i >= 50) {
+                mReadOverhead = Math.min(mReadOverhead, after - before);
+            }
+        }
+    }
+
+    public void start() {
+        mRunning = true;
+        mPaused = false;
+        mCounted = 0;
+        mExcluded = 0;
+        mStart = read();
+    }
+
+    /**
+     * @return the bytes allocated since {@link #start}, except while paused.
+     */
+    public long stop() {
+        final long end = read();
+        if (!mPaused) {
+            mCounted += Math.max(0, end - mStart - mReadOverhead);
+        }
+        mRunning = false;
+        return mCounted;
+    }
+
+    /**
+     * Stops counting until {@link #resume}. Does nothing outside of a measurement.
+     */
+    public void pause() {
+        if (mRunning && !mPaused) {
+            final long now = read();
+            mCounted += Math.max(0, now - mStart - mReadOverhead);
+            mPauseStart = now;
+            mPaused = true;
+        }
+    }
+
+    public void resume() {
+        if (mRunning && mPaused) {
+            final long now = read();
+            mExcluded += Math.max(0, now - mPauseStart - mReadOverhead);
+            mStart = now;
+            mPaused = false;
+        }
+    }
+
+    /**
+     * @return the bytes allocated while paused, during the last measurement.
+     */
+    public long getExcludedBytes() {
+        return mExcluded;
+    }
+
+    private long read() {
+        try {
+            return (Long) mGetThreadAllocatedBytes.invoke(mThreadMXBean, mThreadId);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
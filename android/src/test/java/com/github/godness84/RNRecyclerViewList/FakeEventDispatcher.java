@@ -0,0 +1,91 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.support.annotation.Nullable;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.EventDispatcher;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+import com.facebook.react.views.scroll.ScrollEvent;
+
+/**
+ * Event dispatcher that counts the events of the list and delivers them right away to an
+ * emitter that only counts them too, instead of sending them to JS. Delivering an event builds
+ * its payload, as the real dispatcher does, then disposing it returns pooled events to their
+ * pool. The tests need {@link ShadowArguments} to build the payloads.
+ * <p>
+ * The payload of every event is a new {@code WritableMap}: the real dispatcher builds it on the
+ * JS thread. If an {@link AllocationCounter} is set, it is paused while payloads are built, so
+ * that they are counted apart from the work of the list.
+ */
+/*package*/ class FakeEventDispatcher extends EventDispatcher {
+
+    private final RCTEventEmitter mEventEmitter = new RCTEventEmitter() {
+        @Override
+        public void receiveEvent(int targetTag, String eventName, @Nullable WritableMap event) {
+            mReceivedEvents++;
+        }
+
+        @Override
+        public void receiveTouches(String eventName, WritableArray touches, WritableArray changedIndices) {
+            mReceivedEvents++;
+        }
+    };
+
+    private @Nullable AllocationCounter mAllocationCounter;
+    private int mScrollEvents;
+    private int mVisibleItemsChangeEvents;
+    private int mOtherEvents;
+    private int mReceivedEvents;
+
+    public FakeEventDispatcher(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    /**
+     * Pauses the given counter while the payloads of the events are built.
+     */
+    public void setAllocationCounter(@Nullable AllocationCounter allocationCounter) {
+        mAllocationCounter = allocationCounter;
+    }
+
+    @Override
+    public void dispatchEvent(Event event) {
+        if (event instanceof ScrollEvent) {
+            mScrollEvents++;
+        } else if (event instanceof VisibleItemsChangeEvent) {
+            mVisibleItemsChangeEvents++;
+        } else {
+            mOtherEvents++;
+        }
+        if (mAllocationCounter != null) {
+            mAllocationCounter.pause();
+        }
+        event.dispatch(mEventEmitter);
+        if (mAllocationCounter != null) {
+            mAllocationCounter.resume();
+        }
+        event.dispose();
+    }
+
+    public int getScrollEvents() {
+        return mScrollEvents;
+    }
+
+    public int getVisibleItemsChangeEvents() {
+        return mVisibleItemsChangeEvents;
+    }
+
+    public int getEventCount() {
+        return mScrollEvents + mVisibleItemsChangeEvents + mOtherEvents;
+    }
+
+    /**
+     * @return the number of events delivered to the emitter.
+     */
+    public int getReceivedEvents() {
+        return mReceivedEvents;
+    }
+}
@@ -0,0 +1,219 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.support.v7.widget.RecyclerView;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Throughput of the parts of the list that depend on Android, on lists of 1k, 10k and 100k
+ * items: the {@code addView}, {@code removeViewAt}, {@code getViewByItemIndex} and binds of the
+ * adapter, bursts of update commands and {@code scrollToIndex} jumps received by the manager,
+ * each followed by the layout pass that processes them, and the computation of the visible
+ * range. Skipped unless {@code -Pbenchmark} is passed.
+ * <p>
+ * Each benchmark is warmed up, then run for a fixed time, and printed in operations per second.
+ * Robolectric shadows part of the framework, so the numbers are only meant to compare builds
+ * with each other, on the same machine.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23, shadows = ShadowArguments.class)
+public class ListBenchmarkTest {
+    private static final int[] SIZES = {1000, 10000, 100000};
+    private static final int WINDOW_SIZE = 30;
+    private static final int BURST = 100;
+    private static final long WARM_UP_NANOS = 1000000000L;
+    private static final long MEASUREMENT_NANOS = 2000000000L;
+    private static final long SEED = 42;
+
+    private final Random mRandom = new Random(SEED);
+
+    @Before
+    public void setUp() {
+        assumeTrue(System.getProperty("benchmark") != null);
+    }
+
+    @Test
+    public void adapter() {
+        for (int size : SIZES) {
+            final ListHarness harness = new ListHarness(size);
+            final RecyclerViewBackedScrollView list = harness.getList();
+            final RecyclerViewBackedScrollView.ReactListAdapter adapter =
+                    (RecyclerViewBackedScrollView.ReactListAdapter) list.getAdapter();
+            // Not laid out, so that the rows are only ever bound to the holders of the benchmark
+            harness.render(0, WINDOW_SIZE * 2);
+            final int rendered = adapter.getViewCount();
+
+            final RecyclerViewItemView row = new RecyclerViewItemView(list.getReactContext());
+            report("addView + removeViewAt", size, 2, new Runnable() {
+                @Override
+                public void run() {
+                    final int index = mRandom.nextInt(rendered + 1);
+                    // An item outside of the rendered ones, so that no row loses its index
+                    row.setItemIndex(rendered + mRandom.nextInt(list.getAdapter().getItemCount() - rendered));
+                    adapter.addView(row, index);
+                    adapter.removeViewAt(index);
+                }
+            });
+
+            report("getViewByItemIndex", size, 1, new Runnable() {
+                @Override
+                public void run() {
+                    adapter.getViewByItemIndex(mRandom.nextInt(rendered));
+                }
+            });
+
+            report("onBindViewHolder", size, 1, new Bind(list, rendered));
+        }
+    }
+
+    @Test
+    public void commands() {
+        for (int size : SIZES) {
+            final ListHarness harness = newLaidOutList(size);
+            final RecyclerViewBackedScrollViewManager manager = harness.getManager();
+            final RecyclerViewBackedScrollView list = harness.getList();
+
+            report("insert + remove bursts", size, BURST, new Runnable() {
+                @Override
+                public void run() {
+                    // Half insertions and half removals, so that the item count stays the same
+                    for (int i = 0; i < BURST; i += 2) {
+                        manager.receiveCommand(list, RecyclerViewBackedScrollViewManager.COMMAND_NOTIFY_ITEM_RANGE_INSERTED,
+                                JavaOnlyArray.of(randomPosition(list), 1));
+                        manager.receiveCommand(list, RecyclerViewBackedScrollViewManager.COMMAND_NOTIFY_ITEM_RANGE_REMOVED,
+                                JavaOnlyArray.of(randomPosition(list), 1));
+                    }
+                    harness.layout();
+                }
+            });
+
+            report("move bursts", size, BURST, new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < BURST; i++) {
+                        manager.receiveCommand(list, RecyclerViewBackedScrollViewManager.COMMAND_NOTIFY_ITEM_MOVED,
+                                JavaOnlyArray.of(randomPosition(list), randomPosition(list)));
+                    }
+                    harness.layout();
+                }
+            });
+
+            report("applyUpdates bursts", size, BURST, new Runnable() {
+                @Override
+                public void run() {
+                    final JavaOnlyArray ops = new JavaOnlyArray();
+                    for (int i = 0; i < BURST; i += 2) {
+                        pushUpdate(ops, AdapterUpdates.UPDATE_OP_INSERT, randomPosition(list), 1);
+                        pushUpdate(ops, AdapterUpdates.UPDATE_OP_REMOVE, randomPosition(list), 1);
+                    }
+                    manager.receiveCommand(list, RecyclerViewBackedScrollViewManager.COMMAND_APPLY_UPDATES,
+                            JavaOnlyArray.of(ops));
+                    harness.layout();
+                }
+            });
+
+            report("scrollToIndex", size, 1, new Runnable() {
+                @Override
+                public void run() {
+                    harness.scrollToIndex(randomPosition(list));
+                    harness.layout();
+                }
+            });
+        }
+    }
+
+    @Test
+    public void visibleRange() {
+        for (int size : SIZES) {
+            final ListHarness harness = newLaidOutList(size);
+            final RecyclerViewBackedScrollView list = harness.getList();
+            harness.scrollToIndex(size / 2);
+            harness.layout();
+
+            report("visible range", size, 1, new Runnable() {
+                @Override
+                public void run() {
+                    list.findFirstVisibleItemPosition();
+                    list.findLastVisibleItemPosition();
+                }
+            });
+        }
+    }
+
+    /**
+     * Binds two holders in turn to the rendered items, so that every bind moves a row from one
+     * holder to the other, like a scroll does when a holder is reused.
+     */
+    private class Bind implements Runnable {
+        private final RecyclerView.Adapter mAdapter;
+        private final RecyclerView.ViewHolder[] mHolders = new RecyclerView.ViewHolder[2];
+        private final int mRendered;
+        private int mNext;
+
+        Bind(RecyclerViewBackedScrollView list, int rendered) {
+            mAdapter = list.getAdapter();
+            mHolders[0] = mAdapter.createViewHolder(list, RecyclerViewItemView.DEFAULT_VIEW_TYPE);
+            mHolders[1] = mAdapter.createViewHolder(list, RecyclerViewItemView.DEFAULT_VIEW_TYPE);
+            mRendered = rendered;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            mAdapter.bindViewHolder(mHolders[mNext++ & 1], mRandom.nextInt(mRendered));
+        }
+    }
+
+    private static ListHarness newLaidOutList(int size) {
+        final ListHarness harness = new ListHarness(size);
+        harness.renderWindow(WINDOW_SIZE);
+        harness.layout();
+        harness.advanceFrame();
+        return harness;
+    }
+
+    private int randomPosition(RecyclerViewBackedScrollView list) {
+        return mRandom.nextInt(list.getAdapter().getItemCount());
+    }
+
+    private static void pushUpdate(JavaOnlyArray ops, int op, int a, int b) {
+        ops.pushInt(op);
+        ops.pushInt(a);
+        ops.pushInt(b);
+    }
+
+    /**
+     * Runs the benchmark and prints its throughput.
+     *
+     * @param operations the number of operations done by every run of the benchmark.
+     */
+    private static void report(String name, int size, int operations, Runnable benchmark) {
+        final long warmUpEnd = System.nanoTime() + WARM_UP_NANOS;
+        while (System.nanoTime() < warmUpEnd) {
+            benchmark.run();
+        }
+
+        final long start = System.nanoTime();
+        long runs = 0;
+        long elapsed;
+        do {
+            benchmark.run();
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASUREMENT_NANOS);
+
+        System.out.println(String.format(Locale.US, "%-24s %6d items %14.1f ops/s",
+                name, size, runs * operations * 1e9 / elapsed));
+    }
+}
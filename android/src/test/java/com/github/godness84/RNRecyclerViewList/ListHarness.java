@@ -0,0 +1,220 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.facebook.react.bridge.CatalystInstance;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.uimanager.DisplayMetricsHolder;
+import com.facebook.react.uimanager.UIManagerModule;
+
+import org.robolectric.Robolectric;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A list mounted the way React mounts it, for the Robolectric tests: its events go to a
+ * {@link FakeEventDispatcher}, and its rows are {@link RecyclerViewItemView}s of varying heights
+ * added and reassigned through the {@link RecyclerViewBackedScrollViewManager}, like JS does.
+ * <p>
+ * The list is not attached to a window. It is laid out explicitly with {@link #layout}, and
+ * {@link #advanceFrame} moves the clock of the main looper by one frame, which runs the
+ * Choreographer callbacks of the list.
+ */
+/*package*/ class ListHarness {
+    public static final int WIDTH = 480;
+    public static final int HEIGHT = 800;
+    public static final int MIN_ROW_HEIGHT = 40;
+    public static final long FRAME_INTERVAL_MS = 16;
+
+    private final RecyclerViewBackedScrollViewManager mManager = new RecyclerViewBackedScrollViewManager();
+    private final FakeEventDispatcher mEventDispatcher;
+    private final RecyclerViewBackedScrollView mList;
+    private final List<RecyclerViewItemView> mRows = new ArrayList<>();
+    private final List<Integer> mItemIds = new ArrayList<>();
+    private int mNextItemId;
+
+    public ListHarness(int itemCount) {
+        final ReactApplicationContext context = createReactContext();
+        mEventDispatcher = (FakeEventDispatcher) context.getNativeModule(UIManagerModule.class).getEventDispatcher();
+
+        mList = new RecyclerViewBackedScrollView(context);
+        // Events of lists without an id are not dispatched
+        mList.setId(1);
+        mList.setItemAnimatorEnabled(false);
+        for (int i = 0; i < itemCount; i++) {
+            mItemIds.add(mNextItemId++);
+        }
+        mManager.setItemCount(mList, itemCount);
+    }
+
+    /**
+     * @return a context whose {@link UIManagerModule} sends the events to a
+     * {@link FakeEventDispatcher}, like the one React mounts the lists with.
+     */
+    public static ReactApplicationContext createReactContext() {
+        final ReactApplicationContext context = new ReactApplicationContext(RuntimeEnvironment.application);
+        final UIManagerModule uiManager = mock(UIManagerModule.class);
+        when(uiManager.getEventDispatcher()).thenReturn(new FakeEventDispatcher(context));
+        final CatalystInstance catalystInstance = mock(CatalystInstance.class, RETURNS_DEEP_STUBS);
+        when(catalystInstance.getNativeModule(UIManagerModule.class)).thenReturn(uiManager);
+        context.initializeWithInstance(catalystInstance);
+        DisplayMetricsHolder.initDisplayMetricsIfNotInitialized(context);
+        return context;
+    }
+
+    public RecyclerViewBackedScrollView getList() {
+        return mList;
+    }
+
+    public RecyclerViewBackedScrollViewManager getManager() {
+        return mManager;
+    }
+
+    public FakeEventDispatcher getEventDispatcher() {
+        return mEventDispatcher;
+    }
+
+    public int getItemCount() {
+        return mItemIds.size();
+    }
+
+    /**
+     * Heights between {@link #MIN_ROW_HEIGHT} and twice as much. They follow the items when items
+     * are inserted.
+     */
+    public int getItemHeight(int index) {
+        return MIN_ROW_HEIGHT + (mItemIds.get(index) * 37) % (MIN_ROW_HEIGHT * 2);
+    }
+
+    /**
+     * Renders the items from {@code first} to {@code last}, reusing the rows of the items outside
+     * of the range that are not visible, like the JS side recycles its rows. Rows that are left
+     * over are parked with a negative index.
+     */
+    public void render(int first, int last) {
+        first = Math.max(0, first);
+        last = Math.min(getItemCount() - 1, last);
+        final LinearLayoutManager layoutManager = (LinearLayoutManager) mList.getLayoutManager();
+        final int firstVisible = layoutManager.findFirstVisibleItemPosition();
+        final int lastVisible = layoutManager.findLastVisibleItemPosition();
+
+        final boolean[] rendered = new boolean[Math.max(0, last - first + 1)];
+        final List<RecyclerViewItemView> freeRows = new ArrayList<>();
+        for (RecyclerViewItemView row : mRows) {
+            final int index = row.getItemIndex();
+            if (index >= first && index <= last) {
+                rendered[index - first] = true;
+            } else if (firstVisible == RecyclerView.NO_POSITION || index < firstVisible || index > lastVisible) {
+                freeRows.add(row);
+            }
+        }
+
+        int nextFreeRow = 0;
+        for (int index = first; index <= last; index++) {
+            if (rendered[index - first]) {
+                continue;
+            }
+            if (nextFreeRow < freeRows.size()) {
+                bindRow(freeRows.get(nextFreeRow++), index);
+            } else {
+                final RecyclerViewItemView row = new RecyclerViewItemView(mList.getReactContext());
+                bindRow(row, index);
+                mManager.addView(mList, row, mRows.size());
+                mRows.add(row);
+            }
+        }
+        for (; nextFreeRow < freeRows.size(); nextFreeRow++) {
+            freeRows.get(nextFreeRow).setItemIndex(-1);
+        }
+    }
+
+    /**
+     * Renders {@code windowSize} items before and after the visible ones, like JS does with the
+     * default window of the list.
+     */
+    public void renderWindow(int windowSize) {
+        final LinearLayoutManager layoutManager = (LinearLayoutManager) mList.getLayoutManager();
+        final int firstVisible = layoutManager.findFirstVisibleItemPosition();
+        if (firstVisible == RecyclerView.NO_POSITION) {
+            render(0, windowSize * 2);
+        } else {
+            render(firstVisible - windowSize, layoutManager.findLastVisibleItemPosition() + windowSize);
+        }
+    }
+
+    /**
+     * Inserts new items with the {@code notifyItemRangeInserted} command, then moves the rows of
+     * the items after them to their new index, like JS does when items are spliced into the
+     * data source.
+     */
+    public void insert(int position, int count) {
+        mManager.receiveCommand(
+                mList,
+                RecyclerViewBackedScrollViewManager.COMMAND_NOTIFY_ITEM_RANGE_INSERTED,
+                JavaOnlyArray.of(position, count));
+        for (int i = 0; i < count; i++) {
+            mItemIds.add(position + i, mNextItemId++);
+        }
+
+        // From the last row, so that two rows never have the same index
+        final List<RecyclerViewItemView> rows = new ArrayList<>(mRows);
+        Collections.sort(rows, new Comparator<RecyclerViewItemView>() {
+            @Override
+            public int compare(RecyclerViewItemView a, RecyclerViewItemView b) {
+                return b.getItemIndex() - a.getItemIndex();
+            }
+        });
+        for (RecyclerViewItemView row : rows) {
+            if (row.getItemIndex() < position) {
+                break;
+            }
+            row.setItemIndex(row.getItemIndex() + count);
+        }
+    }
+
+    /**
+     * Sends a {@code scrollToIndex} command. It is never animated: smooth scrolls only run while
+     * the list is attached to a window.
+     */
+    public void scrollToIndex(int index) {
+        mManager.receiveCommand(
+                mList,
+                RecyclerViewBackedScrollViewManager.COMMAND_SCROLL_TO_INDEX,
+                JavaOnlyArray.of(false, index, null, null, null));
+    }
+
+    private void bindRow(RecyclerViewItemView row, int index) {
+        row.setItemIndex(index);
+        row.setItemKey("item" + mItemIds.get(index));
+        final int height = getItemHeight(index);
+        if (row.getHeight() != height || row.getWidth() != WIDTH) {
+            row.measure(
+                    View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+            row.layout(0, 0, WIDTH, height);
+        }
+    }
+
+    public void layout() {
+        mList.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mList.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    public void advanceFrame() {
+        Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Plays a fixed script on a list of 1k rows of varying heights: flings, insertions at the top and
+ * at the bottom, and {@code scrollToIndex} jumps. Each step is checked against a {@link Budget} of
+ * binds, layout passes and events within a single frame, and of blank rows.
+ * <p>
+ * Flings are played frame by frame with {@code scrollBy}, and the rows are rendered by a fake JS
+ * side after every frame, from the visible items.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23, shadows = ShadowArguments.class)
+public class ScrollBudgetTest {
+    private static final int SIZE = 1000;
+    private static final int INSERTIONS = 20;
+    private static final int WINDOW_SIZE = 30;
+    private static final int MAX_FLING_STEP = 120;
+    private static final int MAX_FLING_FRAMES = 2000;
+
+    private static class Budget {
+        final int maxBindsPerFrame;
+        final int maxLayoutsPerFrame;
+        final int maxEventsPerFrame;
+
+        Budget(int maxBindsPerFrame, int maxLayoutsPerFrame, int maxEventsPerFrame) {
+            this.maxBindsPerFrame = maxBindsPerFrame;
+            this.maxLayoutsPerFrame = maxLayoutsPerFrame;
+            this.maxEventsPerFrame = maxEventsPerFrame;
+        }
+    }
+
+    private static final Budget SCROLL_BUDGET = new Budget(8, 2, 4);
+
+    // Updates and jumps may rebind every visible row in a single frame
+    private static final Budget UPDATE_BUDGET = new Budget(
+            ListHarness.HEIGHT / ListHarness.MIN_ROW_HEIGHT + 2, 2, 4);
+
+    private final List<String> mFailures = new ArrayList<>();
+    private ListHarness mHarness;
+    private RecyclerViewBackedScrollView mList;
+
+    @Before
+    public void setUp() throws Exception {
+        mHarness = new ListHarness(SIZE);
+        mList = mHarness.getList();
+        mList.setPerformanceMetricsEnabled(true);
+        mHarness.renderWindow(WINDOW_SIZE);
+        mHarness.layout();
+        mHarness.advanceFrame();
+        mHarness.renderWindow(WINDOW_SIZE);
+        mHarness.layout();
+        mHarness.advanceFrame();
+    }
+
+    @Test
+    public void scriptStaysWithinBudgets() {
+        for (int offset : new int[] {2000, 8000, 20000, 40000}) {
+            startStep();
+            fling(offset);
+            checkStep("fling to " + offset, SCROLL_BUDGET);
+        }
+        for (int offset : new int[] {30000, 10000, 0}) {
+            startStep();
+            fling(offset);
+            checkStep("fling back to " + offset, SCROLL_BUDGET);
+        }
+
+        startStep();
+        mHarness.insert(0, INSERTIONS);
+        mHarness.renderWindow(WINDOW_SIZE);
+        endFrame();
+        checkStep("insert " + INSERTIONS + " at the top", UPDATE_BUDGET);
+
+        startStep();
+        mHarness.insert(mHarness.getItemCount(), INSERTIONS);
+        mHarness.renderWindow(WINDOW_SIZE);
+        endFrame();
+        checkStep("insert " + INSERTIONS + " at the bottom", UPDATE_BUDGET);
+
+        // Pseudo-random indices, the same on every run
+        long seed = 42;
+        for (int i = 0; i < 5; i++) {
+            seed = seed * 16807 % 2147483647;
+            final int index = (int) (seed * SIZE / 2147483647);
+            startStep();
+            // JS renders the rows around the index before sending the command
+            mHarness.render(index - WINDOW_SIZE, index + WINDOW_SIZE);
+            endFrame();
+            mHarness.scrollToIndex(index);
+            endFrame();
+            mHarness.renderWindow(WINDOW_SIZE);
+            checkStep("scrollToIndex " + index, UPDATE_BUDGET);
+        }
+
+        assertTrue("Steps over budget:\n" + join(mFailures, "\n"), mFailures.isEmpty());
+    }
+
+    /**
+     * Scrolls to the offset frame by frame, fast at first and slowing down towards the end.
+     */
+    private void fling(int offset) {
+        for (int frame = 0; frame < MAX_FLING_FRAMES; frame++) {
+            final int current = mList.computeVerticalScrollOffset();
+            final int remaining = offset - current;
+            if (remaining == 0) {
+                return;
+            }
+            final int step = Integer.signum(remaining) * Math.min(MAX_FLING_STEP, Math.max(1, Math.abs(remaining) / 8));
+            mList.scrollBy(0, step);
+            endFrame();
+            mHarness.renderWindow(WINDOW_SIZE);
+            if (mList.computeVerticalScrollOffset() == current) {
+                // Reached an edge of the list
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lays the list out and ends the frame. JS renders the rows of the new visible items between
+     * two frames.
+     */
+    private void endFrame() {
+        mHarness.layout();
+        mHarness.advanceFrame();
+    }
+
+    private void startStep() {
+        mList.getPerformanceMetrics().reset();
+    }
+
+    private void checkStep(String name, Budget budget) {
+        final PerformanceMetrics metrics = mList.getPerformanceMetrics();
+        final List<String> overBudget = new ArrayList<>();
+        if (metrics.getBlankBinds() > 0) {
+            overBudget.add("blankBinds " + metrics.getBlankBinds() + " > 0");
+        }
+        if (metrics.getMaxBindsPerFrame() > budget.maxBindsPerFrame) {
+            overBudget.add("maxBindsPerFrame " + metrics.getMaxBindsPerFrame() + " > " + budget.maxBindsPerFrame);
+        }
+        if (metrics.getMaxLayoutsPerFrame() > budget.maxLayoutsPerFrame) {
+            overBudget.add("maxLayoutsPerFrame " + metrics.getMaxLayoutsPerFrame() + " > " + budget.maxLayoutsPerFrame);
+        }
+        if (metrics.getMaxEventsPerFrame() > budget.maxEventsPerFrame) {
+            overBudget.add("maxEventsPerFrame " + metrics.getMaxEventsPerFrame() + " > " + budget.maxEventsPerFrame);
+        }
+        if (!overBudget.isEmpty()) {
+            mFailures.add(name + ": " + join(overBudget, ", "));
+        }
+    }
+
+    private static String join(List<String> parts, String separator) {
+        final StringBuilder builder = new StringBuilder();
+        for (String part : parts) {
+            if (builder.length() > 0) {
+                builder.append(separator);
+            }
+            builder.append(part);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.widget.FrameLayout;
+
+import com.facebook.react.uimanager.RootView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the work the list does on every frame of a scroll does not allocate once its pools
+ * are warm: the scroll event, the visible items change and the edge checks, run from
+ * {@code onScrollChanged}, and the same work when the scroll is driven by a drag, through
+ * {@code dispatchTouchEvent}.
+ * <p>
+ * Events are delivered as soon as they are dispatched, by a {@link FakeEventDispatcher}. The one
+ * allocation accepted per event is its payload, the {@code WritableMap} built by
+ * {@code Event.dispatch}, on the JS thread in the app: it is counted apart, and only checked to
+ * have been built.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23, shadows = ShadowArguments.class)
+public class ScrollEventAllocationTest {
+    private static final int ITEM_COUNT = 1000;
+    private static final int RENDERED_ITEMS = 60;
+    private static final int WARM_UP_FRAMES = 20;
+    private static final int FRAMES = 60;
+    private static final int SCROLL_STEP = 4;
+
+    @Test
+    public void scrollFramesDoNotAllocate() throws Exception {
+        final ListHarness harness = newList();
+        final RecyclerViewBackedScrollView list = harness.getList();
+        final FakeEventDispatcher dispatcher = harness.getEventDispatcher();
+
+        final AllocationCounter allocations = new AllocationCounter();
+        dispatcher.setAllocationCounter(allocations);
+        for (int frame = 0; frame < WARM_UP_FRAMES; frame++) {
+            scrollFrame(harness);
+        }
+        assertTrue("The warm-up dispatches a visible items change", dispatcher.getVisibleItemsChangeEvents() > 0);
+
+        final int scrollEvents = dispatcher.getScrollEvents();
+        final int visibleItemsChangeEvents = dispatcher.getVisibleItemsChangeEvents();
+        final int receivedEvents = dispatcher.getReceivedEvents();
+        long maxBytes = 0;
+        int maxBytesFrame = -1;
+        long payloadBytes = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            moveRows(harness);
+            allocations.start();
+            list.onScrollChanged(0, 0, 0, 0);
+            final long bytes = allocations.stop();
+            payloadBytes += allocations.getExcludedBytes();
+            if (bytes > maxBytes) {
+                maxBytes = bytes;
+                maxBytesFrame = frame;
+            }
+        }
+
+        assertEquals("Bytes allocated by onScrollChanged in frame " + maxBytesFrame, 0, maxBytes);
+        assertEquals("Every frame dispatches a scroll event", FRAMES, dispatcher.getScrollEvents() - scrollEvents);
+        assertTrue("The visible items change while scrolling",
+                dispatcher.getVisibleItemsChangeEvents() > visibleItemsChangeEvents);
+        assertEquals("Every event is delivered",
+                dispatcher.getEventCount(), dispatcher.getReceivedEvents());
+        assertTrue("Delivering the events builds their payload",
+                dispatcher.getReceivedEvents() > receivedEvents && payloadBytes > 0);
+    }
+
+    /**
+     * Drags the list frame by frame. RecyclerView copies every touch event with
+     * {@code MotionEvent.obtain}, which reuses pooled events on a device but allocates a new one
+     * with Robolectric: a frame may allocate as much as one copy, measured beforehand.
+     */
+    @Test
+    public void dragFramesDoNotAllocate() throws Exception {
+        final ListHarness harness = newList();
+        final RecyclerViewBackedScrollView list = harness.getList();
+        final FakeEventDispatcher dispatcher = harness.getEventDispatcher();
+        // The list notifies the root view when the drag starts
+        new TestRootView(list.getContext()).addView(list);
+
+        // All the events are obtained before the measurements
+        final long downTime = SystemClock.uptimeMillis();
+        final int x = ListHarness.WIDTH / 2;
+        int y = ListHarness.HEIGHT - 1;
+        final MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        final MotionEvent[] moves = new MotionEvent[WARM_UP_FRAMES + FRAMES];
+        for (int i = 0; i < moves.length; i++) {
+            y -= SCROLL_STEP;
+            moves[i] = MotionEvent.obtain(downTime, downTime + (i + 1) * ListHarness.FRAME_INTERVAL_MS,
+                    MotionEvent.ACTION_MOVE, x, y, 0);
+        }
+
+        final AllocationCounter allocations = new AllocationCounter();
+        dispatcher.setAllocationCounter(allocations);
+        list.dispatchTouchEvent(down);
+        for (int frame = 0; frame < WARM_UP_FRAMES; frame++) {
+            harness.advanceFrame();
+            list.dispatchTouchEvent(moves[frame]);
+        }
+        assertEquals("The warm-up starts a drag", RecyclerViewBackedScrollView.SCROLL_STATE_DRAGGING, list.getScrollState());
+
+        long copyBytes = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            allocations.start();
+            final MotionEvent copy = MotionEvent.obtain(down);
+            copyBytes = Math.min(copyBytes, allocations.stop());
+            copy.recycle();
+        }
+
+        final int scrollEvents = dispatcher.getScrollEvents();
+        long maxBytes = 0;
+        int maxBytesFrame = -1;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            harness.advanceFrame();
+            allocations.start();
+            list.dispatchTouchEvent(moves[WARM_UP_FRAMES + frame]);
+            final long bytes = allocations.stop();
+            if (bytes > maxBytes) {
+                maxBytes = bytes;
+                maxBytesFrame = frame;
+            }
+        }
+
+        assertTrue("Bytes allocated by a drag frame " + maxBytesFrame + ": " + maxBytes + " > " + copyBytes,
+                maxBytes <= copyBytes);
+        assertEquals("Every frame dispatches a scroll event", FRAMES, dispatcher.getScrollEvents() - scrollEvents);
+    }
+
+    private static ListHarness newList() {
+        final ListHarness harness = new ListHarness(ITEM_COUNT);
+        final RecyclerViewBackedScrollView list = harness.getList();
+        list.setStartReachedThreshold(0.5f);
+        list.setEndReachedThreshold(0.5f);
+        harness.render(0, RENDERED_ITEMS - 1);
+        harness.layout();
+        harness.advanceFrame();
+        return harness;
+    }
+
+    private static void scrollFrame(ListHarness harness) {
+        moveRows(harness);
+        harness.getList().onScrollChanged(0, 0, 0, 0);
+    }
+
+    /**
+     * Moves the rows like a scroll does and starts a new frame. The list then calls
+     * {@code onScrollChanged}, with the offsets of the view, which stay at 0.
+     */
+    private static void moveRows(ListHarness harness) {
+        harness.getList().offsetChildrenVertical(-SCROLL_STEP);
+        harness.advanceFrame();
+    }
+
+    /**
+     * Stands for the {@code ReactRootView} the lists are mounted in.
+     */
+    private static class TestRootView extends FrameLayout implements RootView {
+        TestRootView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void onChildStartedNativeGesture(MotionEvent androidEvent) {
+        }
+
+        public void handleException(Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+
+/**
+ * Creates the maps and arrays of the events as Java-only collections: the native ones need the
+ * React Native library, which is not loaded on the JVM. Like the native ones, every map and array
+ * is a new object.
+ */
+@Implements(Arguments.class)
+public class ShadowArguments {
+
+    @Implementation
+    public static WritableMap createMap() {
+        return new JavaOnlyMap();
+    }
+
+    @Implementation
+    public static WritableArray createArray() {
+        return new JavaOnlyArray();
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Replays the trace passed with {@code -Ptrace=<file>}, recorded on a device with the
+ * {@code traceFile} prop, and prints the time of each kind of operation, see
+ * {@link TraceReplayer}. Skipped when no trace is passed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class TraceReplayTest {
+    private static final int ROW_SIZE = 48;
+
+    @Test
+    public void replayTrace() throws Exception {
+        final String path = System.getProperty("trace");
+        assumeTrue(path != null && !path.isEmpty());
+
+        final TraceReplayer replayer = new TraceReplayer(
+                ListHarness.createReactContext(), ListHarness.WIDTH, ListHarness.HEIGHT, ROW_SIZE);
+        replayer.replay(new File(path));
+
+        System.out.print(replayer.getReport());
+        assertTrue("The trace has operations", replayer.getOperations() > 0);
+    }
+}
@@ -0,0 +1,264 @@
+package com.github.godness84.RNRecyclerViewList;
+
+import android.view.View;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.WritableArray;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Plays back a trace written by {@link TraceRecorder} on a new list that is not attached to any
+ * window, and times every operation together with the layout pass it causes. It runs on the JVM,
+ * with Robolectric, see {@link TraceReplayTest}.
+ * <p>
+ * Operations are played as fast as possible, in the order they were recorded, through the same
+ * {@link RecyclerViewBackedScrollViewManager} methods JS goes through. The rows are empty views
+ * of a fixed size, item animations are disabled and scroll commands are not animated, so that
+ * replaying the same trace always does the same work and different builds can be compared on it.
+ */
+/*package*/ class TraceReplayer {
+
+    private final RecyclerViewBackedScrollViewManager mManager = new RecyclerViewBackedScrollViewManager();
+    private final Map<Integer, String> mCommandNames = new HashMap<>();
+    private final Map<String, PerformanceMetrics.Histogram> mTimings = new LinkedHashMap<>();
+    private final RecyclerViewBackedScrollView mList;
+    private final int mWidth;
+    private final int mHeight;
+    private final int mRowSize;
+    private DataInputStream mIn;
+    private int mOperations;
+    private long mTraceMicros;
+    private long mReplayNanos;
+
+    /**
+     * @param width the width of the list, in pixels.
+     * @param height the height of the list, in pixels.
+     * @param rowSize the height of the rows, in pixels.
+     */
+    public TraceReplayer(ReactContext context, int width, int height, int rowSize) {
+        mList = new RecyclerViewBackedScrollView(context);
+        mList.setItemAnimatorEnabled(false);
+        mWidth = width;
+        mHeight = height;
+        mRowSize = rowSize;
+
+        for (Map.Entry<String, Integer> command : mManager.getCommandsMap().entrySet()) {
+            mCommandNames.put(command.getValue(), command.getKey());
+        }
+    }
+
+    /**
+     * Replays the trace. The number of operations, the duration of the trace when it was
+     * recorded, the duration of the replay and the time of each kind of operation are then
+     * available from {@link #getReport}.
+     */
+    public void replay(File file) throws IOException {
+        mIn = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (mIn.readInt() != TraceRecorder.MAGIC) {
+                throw new IOException(file + " is not a list trace");
+            }
+            final int version = readVarInt();
+            if (version != TraceRecorder.VERSION) {
+                throw new IOException("Unsupported version " + version + " of the trace " + file);
+            }
+
+            int op;
+            while ((op = mIn.read()) != -1) {
+                mTraceMicros += readVarInt();
+                final long start = System.nanoTime();
+                final String name = playOperation(op);
+                layout();
+                final long nanos = System.nanoTime() - start;
+
+                getTimings(name).record(nanos);
+                mReplayNanos += nanos;
+                mOperations++;
+            }
+        } finally {
+            mIn.close();
+            mIn = null;
+        }
+    }
+
+    public int getOperations() {
+        return mOperations;
+    }
+
+    /**
+     * @return the number of operations, the duration of the trace and of the replay, then one
+     * line per kind of operation with its count, total, average and maximum time.
+     */
+    public String getReport() {
+        final StringBuilder report = new StringBuilder(String.format(Locale.US,
+                "%d operations, traced in %.1f ms, replayed in %.1f ms\n",
+                mOperations, mTraceMicros / 1e3, mReplayNanos / 1e6));
+        for (Map.Entry<String, PerformanceMetrics.Histogram> entry : mTimings.entrySet()) {
+            final PerformanceMetrics.Histogram histogram = entry.getValue();
+            report.append(String.format(Locale.US,
+                    "%-24s count %6d, total %9.3f ms, average %7.3f ms, max %7.3f ms\n",
+                    entry.getKey(),
+                    histogram.getCount(),
+                    histogram.getTotalNanos() / 1e6,
+                    histogram.getTotalNanos() / 1e6 / histogram.getCount(),
+                    histogram.getMaxNanos() / 1e6));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Reads the arguments of the operation and applies it to the list.
+     *
+     * @return the name the operation is timed under.
+     */
+    private String playOperation(int op) throws IOException {
+        switch (op) {
+            case TraceRecorder.OP_ITEM_COUNT: {
+                mManager.setItemCount(mList, readVarInt());
+                return "itemCount";
+            }
+
+            case TraceRecorder.OP_COMMAND: {
+                final int commandType = readVarInt();
+                final boolean scroll = commandType == RecyclerViewBackedScrollViewManager.COMMAND_SCROLL_TO_INDEX
+                        || commandType == RecyclerViewBackedScrollViewManager.COMMAND_SCROLL_TO_OFFSET;
+                final int size = readVarInt();
+                final JavaOnlyArray args = new JavaOnlyArray();
+                for (int i = 0; i < size; i++) {
+                    if (i == 0 && scroll) {
+                        // The first argument of the scroll commands is whether they are animated
+                        readValue(new JavaOnlyArray());
+                        args.pushBoolean(false);
+                    } else {
+                        readValue(args);
+                    }
+                }
+                mManager.receiveCommand(mList, commandType, args);
+                final String name = mCommandNames.get(commandType);
+                return name != null ? name : "command" + commandType;
+            }
+
+            case TraceRecorder.OP_ADD_VIEW: {
+                final int index = readVarInt();
+                final int itemIndex = unZigZag(readVarInt());
+                final long itemId = mIn.readLong();
+                final RecyclerViewItemView child = new RecyclerViewItemView(mList.getReactContext());
+                child.setItemIndex(itemIndex);
+                child.setItemId(itemId);
+                child.measure(
+                        View.MeasureSpec.makeMeasureSpec(mWidth, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(mRowSize, View.MeasureSpec.EXACTLY));
+                child.layout(0, 0, mWidth, mRowSize);
+                mManager.addView(mList, child, index);
+                return "addView";
+            }
+
+            case TraceRecorder.OP_REMOVE_VIEW: {
+                mManager.removeViewAt(mList, readVarInt());
+                return "removeViewAt";
+            }
+
+            case TraceRecorder.OP_ITEM_INDEX: {
+                final int index = readVarInt();
+                final int itemIndex = unZigZag(readVarInt());
+                ((RecyclerViewItemView) mManager.getChildAt(mList, index)).setItemIndex(itemIndex);
+                return "setItemIndex";
+            }
+
+            case TraceRecorder.OP_ITEM_ID: {
+                final int index = readVarInt();
+                final long itemId = mIn.readLong();
+                ((RecyclerViewItemView) mManager.getChildAt(mList, index)).setItemId(itemId);
+                return "setItemKey";
+            }
+
+            default:
+                throw new IOException("Unknown operation " + op + " in the trace");
+        }
+    }
+
+    private void layout() {
+        mList.measure(
+                View.MeasureSpec.makeMeasureSpec(mWidth, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(mHeight, View.MeasureSpec.EXACTLY));
+        mList.layout(0, 0, mWidth, mHeight);
+    }
+
+    private PerformanceMetrics.Histogram getTimings(String name) {
+        PerformanceMetrics.Histogram histogram = mTimings.get(name);
+        if (histogram == null) {
+            histogram = new PerformanceMetrics.Histogram();
+            mTimings.put(name, histogram);
+        }
+        return histogram;
+    }
+
+    private void readValue(WritableArray target) throws IOException {
+        final int type = mIn.readUnsignedByte();
+        switch (type) {
+            case TraceRecorder.VALUE_NULL:
+                target.pushNull();
+                break;
+            case TraceRecorder.VALUE_FALSE:
+                target.pushBoolean(false);
+                break;
+            case TraceRecorder.VALUE_TRUE:
+                target.pushBoolean(true);
+                break;
+            case TraceRecorder.VALUE_INT:
+                // Numbers come from JS as doubles
+                target.pushDouble(unZigZag(readVarInt()));
+                break;
+            case TraceRecorder.VALUE_DOUBLE:
+                target.pushDouble(mIn.readDouble());
+                break;
+            case TraceRecorder.VALUE_STRING: {
+                final byte[] bytes = new byte[readVarInt()];
+                mIn.readFully(bytes);
+                target.pushString(new String(bytes, "UTF-8"));
+                break;
+            }
+            case TraceRecorder.VALUE_ARRAY: {
+                final int size = readVarInt();
+                final JavaOnlyArray array = new JavaOnlyArray();
+                for (int i = 0; i < size; i++) {
+                    readValue(array);
+                }
+                target.pushArray(array);
+                break;
+            }
+            default:
+                throw new IOException("Unknown value type " + type + " in the trace");
+        }
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final int b = mIn.read();
+            if (b == -1) {
+                throw new EOFException("Truncated trace");
+            }
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in the trace");
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
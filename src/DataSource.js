@@ -3,6 +3,7 @@ export default class DataSource {
     this._data = data || [];
     this._keyExtractor = keyExtractor;
     this._listeners = [];
+    this._batchDepth = 0;
 
     if (!keyExtractor) {
       console.warn(
@@ -78,6 +79,24 @@ export default class DataSource {
     });
   }
 
+  beginBatch() {
+    if (this._batchDepth++ > 0) {
+      return;
+    }
+    this._listeners.forEach((listener) => {
+      listener && listener.onBeginBatch && listener.onBeginBatch();
+    });
+  }
+
+  commit() {
+    if (this._batchDepth == 0 || --this._batchDepth > 0) {
+      return;
+    }
+    this._listeners.forEach((listener) => {
+      listener && listener.onCommit && listener.onCommit();
+    });
+  }
+
   get(index) {
     return this._data[index];
   }
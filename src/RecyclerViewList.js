@@ -1,12 +1,27 @@
 import React, { Component } from 'react';
-import ReactNative, { View, requireNativeComponent, DeviceEventEmitter, StyleSheet, UIManager, ViewPropTypes } from 'react-native';
+import ReactNative, { View, requireNativeComponent, DeviceEventEmitter, NativeModules, StyleSheet, UIManager, ViewPropTypes, processColor } from 'react-native';
 import PropTypes from 'prop-types';
 import DataSource from './DataSource';
 
+// Must match the UPDATE_OP_* constants of the native AdapterUpdates
+const UPDATE_OP_INSERT = 1;
+const UPDATE_OP_REMOVE = 2;
+const UPDATE_OP_MOVE = 3;
+
+const UPDATE_COMMANDS = {
+  [UPDATE_OP_INSERT]: 'notifyItemRangeInserted',
+  [UPDATE_OP_REMOVE]: 'notifyItemRangeRemoved',
+  [UPDATE_OP_MOVE]: 'notifyItemMoved'
+};
+
 class RecyclerViewItem extends Component {
   static propTypes = {
     style: ViewPropTypes.style,
     itemIndex: PropTypes.number,
+    itemKey: PropTypes.any,
+    itemType: PropTypes.any,
+    fullSpan: PropTypes.bool,
+    cellStyle: ViewPropTypes.style,
     shouldUpdate: PropTypes.bool,
     dataSource: PropTypes.object,
     renderItem: PropTypes.func,
@@ -18,6 +33,9 @@ class RecyclerViewItem extends Component {
   shouldComponentUpdate(nextProps) {
     if (
       (nextProps.itemIndex !== this.props.itemIndex) ||
+      (nextProps.itemKey !== this.props.itemKey) ||
+      (nextProps.itemType !== this.props.itemType) ||
+      (nextProps.fullSpan !== this.props.fullSpan) ||
       (nextProps.header !== this.props.header) ||
       (nextProps.footer !== this.props.footer) ||
       (nextProps.separator !== this.props.separator) ||
@@ -30,18 +48,24 @@ class RecyclerViewItem extends Component {
   }
 
   render() {
-    const { style, itemIndex, dataSource, renderItem, header, separator, footer } = this.props;
-    const element = renderItem({
+    const { style, itemIndex, itemKey, itemType, fullSpan, cellStyle, dataSource, renderItem, header, separator, footer } = this.props;
+
+    // A parked row (negative index) keeps its last content mounted until it is reused
+    const element = itemIndex < 0 ? this._element : renderItem({
       item: dataSource.get(itemIndex),
       index: itemIndex
     });
+    this._element = element;
 
     return (
       <NativeRecyclerViewItem
         style={style}
-        itemIndex={itemIndex}>
+        itemIndex={itemIndex}
+        itemKey={itemKey != null ? String(itemKey) : null}
+        itemType={itemType != null ? String(itemType) : null}
+        fullSpan={!!fullSpan}>
         {header}
-        {element}
+        {fullSpan ? <View style={cellStyle}>{element}</View> : element}
         {separator}
         {footer}
       </NativeRecyclerViewItem>
@@ -65,7 +89,40 @@ class RecyclerView extends React.PureComponent {
     ListFooterComponent: PropTypes.element,
     ListEmptyComponent: PropTypes.element,
     ItemSeparatorComponent: PropTypes.element,
-    onVisibleItemsChange: PropTypes.func
+    onVisibleItemsChange: PropTypes.func,
+    scrollEventThrottle: PropTypes.number,
+    estimatedItemHeight: PropTypes.number,
+    onContentSizeChange: PropTypes.func,
+    itemHeight: PropTypes.number,
+    getItemType: PropTypes.func,
+    itemTypeHeights: PropTypes.object,
+    recycledViewPoolSizes: PropTypes.object,
+    recycledViewPoolId: PropTypes.string,
+    layoutMode: PropTypes.oneOf(['linear', 'grid', 'staggered']),
+    spanCount: PropTypes.number,
+    horizontal: PropTypes.bool,
+    recycleRows: PropTypes.bool,
+    maxPrefetchSize: PropTypes.number,
+    prefetchBatchSize: PropTypes.number,
+    prefetchBudget: PropTypes.number,
+    stickyHeaderIndices: PropTypes.arrayOf(PropTypes.number),
+    nativeSeparator: PropTypes.shape({
+      color: PropTypes.any,
+      thickness: PropTypes.number,
+      insetStart: PropTypes.number,
+      insetEnd: PropTypes.number,
+      skipLast: PropTypes.bool,
+      honorInverted: PropTypes.bool
+    }),
+    performanceMetricsEnabled: PropTypes.bool,
+    onPerformanceReport: PropTypes.func,
+    performanceReportInterval: PropTypes.number,
+    traceFile: PropTypes.string,
+    onEndReached: PropTypes.func,
+    onEndReachedThreshold: PropTypes.number,
+    onStartReached: PropTypes.func,
+    onStartReachedThreshold: PropTypes.number,
+    reachedThresholdUnit: PropTypes.oneOf(['viewport', 'rows'])
   }
 
   static defaultProps = {
@@ -74,6 +131,18 @@ class RecyclerView extends React.PureComponent {
     windowSize: 30,
     inverted: false,
     itemAnimatorEnabled: true,
+    layoutMode: 'linear',
+    spanCount: 1,
+    horizontal: false,
+    recycleRows: false,
+    maxPrefetchSize: 0,
+    prefetchBatchSize: 5,
+    prefetchBudget: 4,
+    performanceMetricsEnabled: false,
+    performanceReportInterval: 5000,
+    onEndReachedThreshold: 2,
+    onStartReachedThreshold: 2,
+    reachedThresholdUnit: 'viewport',
   }
 
   _dataSourceListener = {
@@ -84,7 +153,7 @@ class RecyclerView extends React.PureComponent {
 
     onPush: () => {
       const { dataSource } = this.props;
-      this._notifyItemRangeInserted(dataSource.size(), 1);
+      this._notifyItemRangeInserted(dataSource.size() - 1, 1);
       this._shouldUpdateAll = true;
     },
 
@@ -110,12 +179,50 @@ class RecyclerView extends React.PureComponent {
 
     onSet: (index, item) => {
       this._shouldUpdateKeys.push(this.props.dataSource.getKey(item, index));
-      this.forceUpdate();
+      this._itemLayoutsChanged(index, 1);
+      this._updateState(null);
     },
 
     onSetDirty: () => {
       this._shouldUpdateAll = true;
-      this.forceUpdate();
+      this._updateState(null);
+    },
+
+    onBeginBatch: () => {
+      this._batch = {
+        ops: [],
+        layoutRanges: [],
+        state: {
+          firstVisibleIndex: this.state.firstVisibleIndex,
+          lastVisibleIndex: this.state.lastVisibleIndex,
+          itemCount: this.state.itemCount
+        }
+      };
+    },
+
+    onCommit: () => {
+      const batch = this._batch;
+      this._batch = null;
+      if (!batch) {
+        return;
+      }
+
+      if (batch.ops.length > 0) {
+        UIManager.dispatchViewManagerCommand(
+          ReactNative.findNodeHandle(this),
+          UIManager.AndroidRecyclerViewBackedScrollView.Commands.applyUpdates,
+          [batch.ops],
+        );
+      }
+      batch.layoutRanges.forEach(({ start, count }) => {
+        this._sendItemKeys(start, count);
+        this._sendItemLayouts(start, count);
+      });
+
+      if (batch.state.itemCount !== this.state.itemCount) {
+        batch.state.itemCount = this.props.dataSource.size();
+      }
+      this.setState(batch.state);
     }
   }
 
@@ -142,6 +249,13 @@ class RecyclerView extends React.PureComponent {
 
     this._shouldUpdateAll = true;
     this._shouldUpdateKeys = [];
+    this._batch = null;
+    this._itemLayoutsDirty = false;
+    this._itemKeysDirty = false;
+    this._slots = [];
+    this._slotsByItemKey = new Map();
+    this._nextSlotId = 0;
+    this._prefetchPending = false;
   }
 
   componentWillMount() {
@@ -156,6 +270,9 @@ class RecyclerView extends React.PureComponent {
 
   componentDidMount() {
     const { initialScrollIndex, initialScrollOffset } = this.props;
+    this._sendItemKeys();
+    this._sendItemLayouts();
+
     if (initialScrollIndex) {
       this.scrollToIndex({
         animated: false,
@@ -171,16 +288,57 @@ class RecyclerView extends React.PureComponent {
 
   componentWillReceiveProps(nextProps) {
     const { dataSource } = this.props;
+    if (nextProps.layoutMode !== this.props.layoutMode ||
+      nextProps.spanCount !== this.props.spanCount ||
+      nextProps.horizontal !== this.props.horizontal) {
+      this._shouldUpdateAll = true;
+    }
+
     if (nextProps.dataSource !== dataSource) {
       dataSource._removeListener(this._dataSourceListener);
       nextProps.dataSource._addListener(this._dataSourceListener);
-      this._notifyDataSetChanged(nextProps.dataSource.size());
+
+      // The native list reflects the old DataSource only if no batch was left open
+      // and it was not showing the ListEmptyComponent
+      if (!this._batch && dataSource.size() > 0 && nextProps.dataSource.size() > 0) {
+        this._notifyDataSetChangedWithKeys(dataSource, nextProps.dataSource);
+      } else {
+        this._notifyDataSetChanged(nextProps.dataSource.size());
+      }
+      this._batch = null;
+      this._shouldUpdateAll = true;
     }
   }
 
   componentDidUpdate(prevProps, prevState) {
     this._shouldUpdateAll = false;
     this._shouldUpdateKeys = [];
+
+    if (this._itemKeysDirty) {
+      this._sendItemKeys();
+    }
+    if (this._itemLayoutsDirty || this._itemTypeHeightsChanged(prevProps)) {
+      this._sendItemLayouts();
+    }
+  }
+
+  // getItemType is compared by reference, so it must be memoized (e.g. a method bound once)
+  // for the layouts not to be resent on every render. itemTypeHeights is compared by value, so
+  // an inline object literal doesn't resend them
+  _itemTypeHeightsChanged(prevProps) {
+    const { getItemType, itemTypeHeights } = this.props;
+    if (prevProps.getItemType !== getItemType) {
+      return true;
+    }
+    if (prevProps.itemTypeHeights === itemTypeHeights) {
+      return false;
+    }
+    if (!prevProps.itemTypeHeights || !itemTypeHeights) {
+      return true;
+    }
+    const types = Object.keys(itemTypeHeights);
+    return types.length !== Object.keys(prevProps.itemTypeHeights).length ||
+      types.some((type) => prevProps.itemTypeHeights[type] !== itemTypeHeights[type]);
   }
 
   render() {
@@ -192,6 +350,21 @@ class RecyclerView extends React.PureComponent {
       ListEmptyComponent,
       ItemSeparatorComponent,
       inverted,
+      onContentSizeChange,
+      getItemType,
+      itemTypeHeights,
+      recycleRows,
+      maxPrefetchSize,
+      prefetchBatchSize,
+      prefetchBudget,
+      nativeSeparator,
+      performanceMetricsEnabled,
+      onPerformanceReport,
+      performanceReportInterval,
+      onEndReached,
+      onEndReachedThreshold,
+      onStartReached,
+      onStartReachedThreshold,
       ...rest
     } = this.props;
 
@@ -200,8 +373,17 @@ class RecyclerView extends React.PureComponent {
     var stateItemCount = this.state.itemCount;
 
     var body = [];
+    var itemStyle = this._getItemStyle();
+    var isGrid = this.props.layoutMode === 'grid' || this.props.layoutMode === 'staggered';
+    var horizontal = this.props.horizontal;
     var itemRangeToRender = this._calcItemRangeToRender(this.state.firstVisibleIndex, this.state.lastVisibleIndex);
 
+    // The header pinned natively must stay rendered even when its section is far from the window
+    var stickyIndex = this._findStickyHeaderIndex(this.state.firstVisibleIndex);
+    if (stickyIndex >= itemRangeToRender[0] && stickyIndex < itemRangeToRender[1]) {
+      stickyIndex = -1;
+    }
+
     if (ListHeaderComponent) {
       var headerElement = React.isValidElement(ListHeaderComponent)
         ? ListHeaderComponent
@@ -214,34 +396,73 @@ class RecyclerView extends React.PureComponent {
         : <ListFooterComponent />;
     }
 
-    if (ItemSeparatorComponent) {
+    // A native separator replaces the JS one, they are not drawn both
+    if (ItemSeparatorComponent && !nativeSeparator) {
       var separatorElement = React.isValidElement(ItemSeparatorComponent)
         ? ItemSeparatorComponent
         : <ItemSeparatorComponent />;
     }
 
-    if (itemCount > 0) {
+    const renderRow = (key, i, itemKey, itemType) => {
+      let isFirst = i == 0;
+      let isLast = i == end;
+      let header = inverted ? (isLast && footerElement) : (isFirst && headerElement);
+      let footer = inverted ? (isFirst && headerElement) : (isLast && footerElement);
+      let separator = inverted ? (!isFirst && separatorElement) : (!isLast && separatorElement);
+      // In a grid the row of the header or the footer takes a whole line, with the item in a cell
+      let fullSpan = isGrid && !!(header || footer);
+      return (
+        <RecyclerViewItem
+          key={key}
+          style={fullSpan ? (horizontal ? styles.absoluteHorizontal : styles.absolute) : itemStyle}
+          itemIndex={i}
+          itemKey={itemKey}
+          itemType={itemType}
+          fullSpan={fullSpan}
+          cellStyle={fullSpan ? this._cellSizeStyle : null}
+          shouldUpdate={this._needsItemUpdate(itemKey)}
+          dataSource={dataSource}
+          renderItem={renderItem}
+          header={header}
+          separator={separator}
+          footer={footer} />
+      );
+    };
+
+    if ((!recycleRows || itemCount == 0) && this._slots.length > 0) {
+      this._resetSlots();
+    }
+
+    if (itemCount > 0 && recycleRows) {
+      this._assignSlots(itemRangeToRender[0], itemRangeToRender[1], stickyIndex);
+
+      // Slots are always rendered in the same order, so that reassigning them never moves
+      // native views around
+      for (var s = 0; s < this._slots.length; s++) {
+        let slot = this._slots[s];
+        body.push(slot.index >= 0
+          ? renderRow(slot.key, slot.index, slot.itemKey, slot.itemType)
+          : (
+            <RecyclerViewItem
+              key={slot.key}
+              style={itemStyle}
+              itemIndex={-1}
+              itemKey={null}
+              itemType={slot.itemType}
+              dataSource={dataSource}
+              renderItem={renderItem} />
+          ));
+      }
+    } else if (itemCount > 0) {
       for (var i=itemRangeToRender[0]; i<itemRangeToRender[1]; i++) {
         let item = dataSource.get(i);
         let itemKey = dataSource.getKey(item, i);
-        let shouldUpdate = this._needsItemUpdate(itemKey);
-        let isFirst = i == 0;
-        let isLast = i == end;
-        let header = inverted ? (isLast && footerElement) : (isFirst && headerElement);
-        let footer = inverted ? (isFirst && headerElement) : (isLast && footerElement);
-        let separator = inverted ? (!isFirst && separatorElement) : (!isLast && separatorElement);
-        body.push(
-          <RecyclerViewItem
-            key={itemKey}
-            style={styles.absolute}
-            itemIndex={i}
-            shouldUpdate={shouldUpdate}
-            dataSource={dataSource}
-            renderItem={renderItem}
-            header={header}
-            separator={separator}
-            footer={footer} />
-        );
+        body.push(renderRow(itemKey, i, itemKey, getItemType ? getItemType(item, i) : null));
+      }
+      if (stickyIndex >= 0 && stickyIndex < itemCount) {
+        let item = dataSource.get(stickyIndex);
+        let itemKey = dataSource.getKey(item, stickyIndex);
+        body.push(renderRow(itemKey, stickyIndex, itemKey, getItemType ? getItemType(item, stickyIndex) : null));
       }
     } else if (ListEmptyComponent) {
       var emptyElement = React.isValidElement(ListEmptyComponent)
@@ -253,6 +474,7 @@ class RecyclerView extends React.PureComponent {
           style={styles.absolute}
           key="$empty"
           itemIndex={0}
+          itemKey="$empty"
           shouldUpdate={true}
           dataSource={dataSource}
           renderItem={() => emptyElement}
@@ -268,6 +490,18 @@ class RecyclerView extends React.PureComponent {
         {...rest}
         itemCount={stateItemCount}
         onVisibleItemsChange={this._handleVisibleItemsChange}
+        contentSizeChangeEnabled={!!onContentSizeChange}
+        onContentSizeChange={onContentSizeChange && this._handleContentSizeChange}
+        onPrefetch={this._handlePrefetch}
+        prefetchBudget={maxPrefetchSize > 0 ? prefetchBudget : -1}
+        nativeSeparator={this._getNativeSeparator(nativeSeparator)}
+        performanceMetricsEnabled={performanceMetricsEnabled || !!onPerformanceReport}
+        performanceReportInterval={onPerformanceReport ? performanceReportInterval : 0}
+        onPerformanceReport={onPerformanceReport && this._handlePerformanceReport}
+        endReachedThreshold={onEndReached ? onEndReachedThreshold : -1}
+        startReachedThreshold={onStartReached ? onStartReachedThreshold : -1}
+        onEndReached={onEndReached && this._handleEndReached}
+        onStartReached={onStartReached && this._handleStartReached}
         inverted={inverted}>
         {body}
       </NativeRecyclerView>
@@ -305,6 +539,197 @@ class RecyclerView extends React.PureComponent {
     }
   }
 
+  scrollToOffset = ({ animated = true, offset }) => {
+    UIManager.dispatchViewManagerCommand(
+        ReactNative.findNodeHandle(this),
+        UIManager.AndroidRecyclerViewBackedScrollView.Commands.scrollToOffset,
+        [animated, offset],
+      );
+  }
+
+  // Resolves with the metrics collected since they were enabled or reset
+  getPerformanceMetrics() {
+    return NativeModules.RNRecyclerviewList.getPerformanceMetrics(ReactNative.findNodeHandle(this));
+  }
+
+  resetPerformanceMetrics() {
+    NativeModules.RNRecyclerviewList.resetPerformanceMetrics(ReactNative.findNodeHandle(this));
+  }
+
+  // Sends the heights of the items in the given range, all of them by default, resolved from
+  // their type, as (count, height) runs
+  _sendItemLayouts(start = 0, count) {
+    const { dataSource, getItemType, itemTypeHeights } = this.props;
+    if (start === 0 && count == null) {
+      this._itemLayoutsDirty = false;
+    }
+    if (!getItemType || !itemTypeHeights) {
+      return;
+    }
+
+    const end = count == null ? dataSource.size() : Math.min(dataSource.size(), start + count);
+    if (start >= end) {
+      return;
+    }
+
+    var runs = [];
+    var lastHeight = null;
+    for (var i = start; i < end; i++) {
+      var height = itemTypeHeights[getItemType(dataSource.get(i), i)];
+      height = height != null ? height : -1;
+      if (height === lastHeight) {
+        runs[runs.length - 2]++;
+      } else {
+        runs.push(1, height);
+        lastHeight = height;
+      }
+    }
+
+    UIManager.dispatchViewManagerCommand(
+        ReactNative.findNodeHandle(this),
+        UIManager.AndroidRecyclerViewBackedScrollView.Commands.setItemLayouts,
+        [runs, start],
+      );
+  }
+
+  // Sends the keys of the items in the given range, all of them by default. The native list
+  // derives the stable ids of the items from them
+  _sendItemKeys(start = 0, count) {
+    const { dataSource } = this.props;
+    if (start === 0 && count == null) {
+      this._itemKeysDirty = false;
+    }
+
+    const end = count == null ? dataSource.size() : Math.min(dataSource.size(), start + count);
+    if (start >= end) {
+      return;
+    }
+
+    const keys = new Array(end - start);
+    for (var i = start; i < end; i++) {
+      keys[i - start] = String(dataSource.getKey(dataSource.get(i), i));
+    }
+
+    UIManager.dispatchViewManagerCommand(
+        ReactNative.findNodeHandle(this),
+        UIManager.AndroidRecyclerViewBackedScrollView.Commands.setItemKeys,
+        [keys, start],
+      );
+  }
+
+  // Sends the keys and the layouts of the items inserted or replaced in the given range. The
+  // native list moves the keys and layouts it already has along with the items, so the other
+  // items don't need to be resent. In a batch the range is sent once the updates are applied, and
+  // kept aligned with the positions until then.
+  _itemLayoutsChanged(start, count) {
+    if (this._batch) {
+      this._batch.layoutRanges.push({ start, count });
+    } else {
+      this._sendItemKeys(start, count);
+      this._sendItemLayouts(start, count);
+    }
+  }
+
+  // Shifts the ranges of a batch still to be sent by an update queued after them
+  _shiftLayoutRanges(op, a, b) {
+    const ranges = this._batch.layoutRanges;
+    if (op === UPDATE_OP_MOVE) {
+      // The moved item may be one still to be sent, which is then sent from its new position
+      this._shiftLayoutRanges(UPDATE_OP_REMOVE, a, 1);
+      this._shiftLayoutRanges(UPDATE_OP_INSERT, b, 1);
+      ranges.push({ start: b, count: 1 });
+      return;
+    }
+    for (var i = ranges.length - 1; i >= 0; i--) {
+      const range = ranges[i];
+      const end = range.start + range.count;
+      if (op === UPDATE_OP_INSERT) {
+        if (range.start >= a) {
+          range.start += b;
+        } else if (end > a) {
+          range.count += b;
+        }
+      } else {
+        const removedEnd = a + b;
+        const shift = (position) => position <= a ? position : Math.max(a, position - b);
+        range.start = shift(range.start);
+        range.count = (end <= a ? end : end >= removedEnd ? end - b : a) - range.start;
+        if (range.count <= 0) {
+          ranges.splice(i, 1);
+        }
+      }
+    }
+  }
+
+  // Recycling mode: every rendered item gets a slot, that is a RecyclerViewItem kept mounted
+  // under the same React key. The slots of the items that left the window are reassigned to
+  // the incoming items of the same type, which updates their props instead of unmounting and
+  // recreating the whole native subtree. The slots left over are parked with a negative index.
+  _assignSlots(from, to, extraIndex) {
+    const { dataSource, getItemType } = this.props;
+    const previous = this._slotsByItemKey;
+    const assigned = new Map();
+    const unassigned = [];
+
+    for (var n = from; n <= to; n++) {
+      // The extra index, if any, is assigned after the range
+      let i = n < to ? n : extraIndex;
+      if (i < 0 || i >= dataSource.size()) {
+        continue;
+      }
+      let item = dataSource.get(i);
+      let itemKey = dataSource.getKey(item, i);
+      let itemType = getItemType ? getItemType(item, i) : null;
+      let slot = previous.get(itemKey);
+      if (slot && slot.itemType === itemType) {
+        previous.delete(itemKey);
+        assigned.set(itemKey, slot);
+        Object.assign(slot, { index: i, itemKey });
+      } else {
+        unassigned.push({ index: i, itemKey, itemType });
+      }
+    }
+
+    const free = {};
+    previous.forEach((slot) => {
+      slot.index = -1;
+      slot.itemKey = null;
+      (free[slot.itemType] = free[slot.itemType] || []).push(slot);
+    });
+
+    for (var j = 0; j < unassigned.length; j++) {
+      let row = unassigned[j];
+      let freeSlots = free[row.itemType];
+      let slot = freeSlots && freeSlots.length > 0 ? freeSlots.pop() : null;
+      if (!slot) {
+        slot = { key: '$slot' + this._nextSlotId++, itemType: row.itemType };
+        this._slots.push(slot);
+      }
+      Object.assign(slot, row);
+      assigned.set(row.itemKey, slot);
+    }
+
+    this._slotsByItemKey = assigned;
+  }
+
+  _findStickyHeaderIndex(firstVisibleIndex) {
+    const { stickyHeaderIndices } = this.props;
+    var stickyIndex = -1;
+    if (stickyHeaderIndices) {
+      for (var i = 0; i < stickyHeaderIndices.length; i++) {
+        if (stickyHeaderIndices[i] <= firstVisibleIndex && stickyHeaderIndices[i] > stickyIndex) {
+          stickyIndex = stickyHeaderIndices[i];
+        }
+      }
+    }
+    return stickyIndex;
+  }
+
+  _resetSlots() {
+    this._slots = [];
+    this._slotsByItemKey = new Map();
+  }
+
   _needsItemUpdate(itemKey) {
     return this._shouldUpdateAll || this._shouldUpdateKeys.includes(itemKey);
   }
@@ -312,10 +737,28 @@ class RecyclerView extends React.PureComponent {
   _handleVisibleItemsChange = ({nativeEvent}) => {
     var firstIndex = nativeEvent.firstIndex;
     var lastIndex = nativeEvent.lastIndex;
+    var { renderFirstIndex, renderLastIndex } = nativeEvent;
+
+    // The native side skews the render window towards the scroll direction: keep it as
+    // padding around the visible items, so that it follows them when items are inserted
+    var windowState = renderFirstIndex >= 0 && renderLastIndex >= 0
+      ? { windowBefore: firstIndex - renderFirstIndex, windowAfter: renderLastIndex + 1 - lastIndex }
+      : { windowBefore: undefined, windowAfter: undefined };
+
+    // As the list moves, the rows prefetched ahead of it are used up and the ones behind it are
+    // let go: both shrink by the distance moved, so that prefetching doesn't grow the window
+    // for good
+    var { prefetchBefore = 0, prefetchAfter = 0 } = this.state;
+    var moved = Math.abs(firstIndex - this.state.firstVisibleIndex);
+    var prefetchState = moved > 0 && (prefetchBefore > 0 || prefetchAfter > 0)
+      ? { prefetchBefore: Math.max(0, prefetchBefore - moved), prefetchAfter: Math.max(0, prefetchAfter - moved) }
+      : null;
 
     this.setState({
       firstVisibleIndex: firstIndex,
       lastVisibleIndex: lastIndex,
+      ...windowState,
+      ...prefetchState
     });
 
     const { onVisibleItemsChange } = this.props;
@@ -324,60 +767,197 @@ class RecyclerView extends React.PureComponent {
     }
   }
 
+  // Called by the native side when a frame has spare time: renders a few more rows beyond the
+  // window, on the side the list is scrolling to, until maxPrefetchSize rows are prefetched
+  // on each side. The batch is sized so that mounting it fits in the time left in the frame, and
+  // at least in prefetchBudget, from the time the UI thread took to mount the previous batches.
+  _handlePrefetch = ({nativeEvent}) => {
+    const { dataSource, maxPrefetchSize, prefetchBatchSize, prefetchBudget } = this.props;
+    if (this._prefetchPending || this._batch) {
+      return;
+    }
+
+    const { prefetchBefore = 0, prefetchAfter = 0 } = this.state;
+    const { renderFirstIndex, renderLastIndex, frameTimeLeft, mountTimePerRow } = nativeEvent;
+    const canPrefetchBefore = prefetchBefore < maxPrefetchSize && renderFirstIndex > 0;
+    const canPrefetchAfter = prefetchAfter < maxPrefetchSize && renderLastIndex < dataSource.size() - 1;
+    const before = canPrefetchBefore && (nativeEvent.direction < 0 || !canPrefetchAfter);
+    if (!before && !canPrefetchAfter) {
+      return;
+    }
+
+    // A single row until the native side has measured what mounting a row costs
+    const budget = Math.max(prefetchBudget, frameTimeLeft);
+    const batchSize = mountTimePerRow > 0
+      ? Math.max(1, Math.min(prefetchBatchSize, Math.floor(budget / mountTimePerRow)))
+      : 1;
+    const rowCount = before
+      ? Math.min(batchSize, maxPrefetchSize - prefetchBefore, renderFirstIndex)
+      : Math.min(batchSize, maxPrefetchSize - prefetchAfter, dataSource.size() - 1 - renderLastIndex);
+
+    // The UI operations of the rows rendered in between are measured on the UI thread
+    const viewTag = ReactNative.findNodeHandle(this);
+    NativeModules.RNRecyclerviewList.startPrefetchMount(viewTag);
+    this._prefetchPending = true;
+    this.setState(before
+      ? { prefetchBefore: prefetchBefore + rowCount }
+      : { prefetchAfter: prefetchAfter + rowCount },
+      () => {
+        this._prefetchPending = false;
+        NativeModules.RNRecyclerviewList.endPrefetchMount(viewTag, rowCount);
+      });
+  }
+
+  // In grid layouts each item is a cell as wide as a column (or as tall as a row when horizontal)
+  _getItemStyle() {
+    const { layoutMode, spanCount, horizontal } = this.props;
+    if (layoutMode === 'grid' || layoutMode === 'staggered') {
+      if (this._cellStyle == null || this._cellStyleSpanCount !== spanCount || this._cellStyleHorizontal !== horizontal) {
+        var size = (100 / Math.max(1, spanCount)) + '%';
+        this._cellSizeStyle = horizontal ? { height: size } : { width: size };
+        this._cellStyle = [styles.absoluteCell, this._cellSizeStyle];
+        this._cellStyleSpanCount = spanCount;
+        this._cellStyleHorizontal = horizontal;
+      }
+      return this._cellStyle;
+    }
+    return horizontal ? styles.absoluteHorizontal : styles.absolute;
+  }
+
+  // The color is converted once per separator object, so that native receives the prop again
+  // only when it changes
+  _getNativeSeparator(nativeSeparator) {
+    if (nativeSeparator !== this._nativeSeparator) {
+      this._nativeSeparator = nativeSeparator;
+      this._processedNativeSeparator = nativeSeparator
+        ? { ...nativeSeparator, color: processColor(nativeSeparator.color) }
+        : null;
+    }
+    return this._processedNativeSeparator;
+  }
+
+  _handlePerformanceReport = ({nativeEvent}) => {
+    const { onPerformanceReport } = this.props;
+    if (onPerformanceReport) {
+      onPerformanceReport(nativeEvent);
+    }
+  }
+
+  _handleEndReached = ({nativeEvent}) => {
+    const { onEndReached } = this.props;
+    if (onEndReached) {
+      onEndReached(nativeEvent);
+    }
+  }
+
+  _handleStartReached = ({nativeEvent}) => {
+    const { onStartReached } = this.props;
+    if (onStartReached) {
+      onStartReached(nativeEvent);
+    }
+  }
+
+  _handleContentSizeChange = ({nativeEvent}) => {
+    const { onContentSizeChange } = this.props;
+    if (onContentSizeChange) {
+      onContentSizeChange(nativeEvent.width, nativeEvent.height);
+    }
+  }
+
   _calcItemRangeToRender(firstVisibleIndex, lastVisibleIndex) {
     const { dataSource, windowSize } = this.props;
+    const { windowBefore = windowSize, windowAfter = windowSize, prefetchBefore = 0, prefetchAfter = 0 } = this.state;
     var count = dataSource.size();
-    var from = Math.min(count, Math.max(0, firstVisibleIndex - windowSize));
-    var to = Math.min(count, lastVisibleIndex + windowSize);
+    var from = Math.min(count, Math.max(0, firstVisibleIndex - windowBefore - prefetchBefore));
+    var to = Math.min(count, lastVisibleIndex + windowAfter + prefetchAfter);
     return [from, to];
   }
 
   _notifyItemMoved(currentPosition, nextPosition) {
-    UIManager.dispatchViewManagerCommand(
-      ReactNative.findNodeHandle(this),
-      UIManager.AndroidRecyclerViewBackedScrollView.Commands.notifyItemMoved,
-      [currentPosition, nextPosition],
-    );
-    this.forceUpdate();
+    this._dispatchUpdate(UPDATE_OP_MOVE, currentPosition, nextPosition);
+    this._updateState(null);
   }
 
   _notifyItemRangeInserted(position, count) {
-    UIManager.dispatchViewManagerCommand(
-        ReactNative.findNodeHandle(this),
-        UIManager.AndroidRecyclerViewBackedScrollView.Commands.notifyItemRangeInserted,
-        [position, count],
-      );
+    this._dispatchUpdate(UPDATE_OP_INSERT, position, count);
 
-    const { firstVisibleIndex, lastVisibleIndex, itemCount } = this.state;
+    const { firstVisibleIndex, lastVisibleIndex, itemCount } = this._batch ? this._batch.state : this.state;
 
     if (itemCount == 0) {
-      this.setState({
+      this._updateState({
         itemCount: this.props.dataSource.size(),
         firstVisibleIndex: 0,
         lastVisibleIndex: this.props.initialListSize
       });
     } else {
       if (position <= firstVisibleIndex) {
-        this.setState({
-          firstVisibleIndex: this.state.firstVisibleIndex + count,
-          lastVisibleIndex: this.state.lastVisibleIndex + count,
+        this._updateState({
+          firstVisibleIndex: firstVisibleIndex + count,
+          lastVisibleIndex: lastVisibleIndex + count,
         });
       } else {
-        this.forceUpdate();
+        this._updateState(null);
       }
     }
   }
 
   _notifyItemRangeRemoved(position, count) {
+    this._dispatchUpdate(UPDATE_OP_REMOVE, position, count);
+    this._updateState(null);
+  }
+
+  // While a DataSource batch is open, updates are queued and sent to native
+  // all together with the 'applyUpdates' command when the batch is committed.
+  _dispatchUpdate(op, a, b) {
+    if (this._batch) {
+      this._batch.ops.push(op, a, b);
+      this._shiftLayoutRanges(op, a, b);
+    } else {
+      UIManager.dispatchViewManagerCommand(
+          ReactNative.findNodeHandle(this),
+          UIManager.AndroidRecyclerViewBackedScrollView.Commands[UPDATE_COMMANDS[op]],
+          [a, b],
+        );
+    }
+
+    if (op === UPDATE_OP_INSERT) {
+      this._itemLayoutsChanged(a, b);
+    }
+  }
+
+  _updateState(state) {
+    if (this._batch) {
+      Object.assign(this._batch.state, state);
+    } else if (state) {
+      this.setState(state);
+    } else {
+      this.forceUpdate();
+    }
+  }
+
+  _notifyDataSetChangedWithKeys(oldDataSource, newDataSource) {
+    this._itemLayoutsDirty = true;
     UIManager.dispatchViewManagerCommand(
         ReactNative.findNodeHandle(this),
-        UIManager.AndroidRecyclerViewBackedScrollView.Commands.notifyItemRangeRemoved,
-        [position, count],
+        UIManager.AndroidRecyclerViewBackedScrollView.Commands.notifyDataSetChangedWithKeys,
+        [this._getKeys(oldDataSource), this._getKeys(newDataSource)],
       );
-    this.forceUpdate();
+    this.setState({
+      itemCount: newDataSource.size()
+    });
+  }
+
+  _getKeys(dataSource) {
+    const keys = new Array(dataSource.size());
+    for (var i = 0; i < keys.length; i++) {
+      keys[i] = String(dataSource.getKey(dataSource.get(i), i));
+    }
+    return keys;
   }
 
   _notifyDataSetChanged(itemCount) {
+    this._itemKeysDirty = true;
+    this._itemLayoutsDirty = true;
     UIManager.dispatchViewManagerCommand(
         ReactNative.findNodeHandle(this),
         UIManager.AndroidRecyclerViewBackedScrollView.Commands.notifyDataSetChanged,
@@ -392,6 +972,10 @@ class RecyclerView extends React.PureComponent {
 var nativeOnlyProps = {
   nativeOnly: {
     onVisibleItemsChange: true,
+    onPrefetch: true,
+    contentSizeChangeEnabled: true,
+    endReachedThreshold: true,
+    startReachedThreshold: true,
     itemCount: true
   }
 };
@@ -403,6 +987,17 @@ var styles = StyleSheet.create({
     left: 0,
     right: 0
   },
+  absoluteHorizontal: {
+    position: 'absolute',
+    top: 0,
+    left: 0,
+    bottom: 0
+  },
+  absoluteCell: {
+    position: 'absolute',
+    top: 0,
+    left: 0
+  },
 });
 
 const NativeRecyclerView = requireNativeComponent('AndroidRecyclerViewBackedScrollView', RecyclerView, nativeOnlyProps);